@@ -22,24 +22,43 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.huaweicloud.common.event.EventDispatchProperties;
+import com.huaweicloud.common.event.EventDispatcher;
+import com.huaweicloud.common.event.EventManager;
 import com.huaweicloud.common.transport.AkSkRequestAuthHeaderProvider;
+import com.huaweicloud.common.transport.HttpTransportProperties;
 import com.huaweicloud.common.transport.RBACRequestAuthHeaderProvider;
 import com.huaweicloud.common.transport.ServiceCombAkSkProperties;
 import com.huaweicloud.common.transport.DiscoveryBootstrapProperties;
 import com.huaweicloud.common.transport.ServiceCombRBACProperties;
 import com.huaweicloud.common.transport.ServiceCombSSLProperties;
+import com.huaweicloud.common.transport.SharedHttpTransportFactory;
 import com.huaweicloud.common.util.Cipher;
 import com.huaweicloud.common.util.ShaAKSKCipher;
 
 @Configuration
 @EnableConfigurationProperties({ServiceCombAkSkProperties.class, ServiceCombRBACProperties.class,
-    ServiceCombSSLProperties.class, DiscoveryBootstrapProperties.class})
+    ServiceCombSSLProperties.class, DiscoveryBootstrapProperties.class, EventDispatchProperties.class,
+    HttpTransportProperties.class})
 public class CommonConfiguration {
   @Bean
   public Cipher shaAKSKCipher() {
     return new ShaAKSKCipher();
   }
 
+  @Bean
+  public EventDispatcher serviceCombEventDispatcher(EventDispatchProperties eventDispatchProperties) {
+    EventDispatcher eventDispatcher = EventManager.getEventDispatcher();
+    eventDispatcher.configure(eventDispatchProperties);
+    return eventDispatcher;
+  }
+
+  @Bean
+  public SharedHttpTransportFactory sharedHttpTransportFactory(HttpTransportProperties httpTransportProperties,
+      ServiceCombSSLProperties serviceCombSSLProperties) {
+    return new SharedHttpTransportFactory(httpTransportProperties, serviceCombSSLProperties);
+  }
+
   @Bean
   public AuthHeaderProvider akSkRequestAuthHeaderProvider(ServiceCombAkSkProperties serviceCombAkSkProperties) {
     return new AkSkRequestAuthHeaderProvider(serviceCombAkSkProperties);
@@ -47,8 +66,8 @@ public class CommonConfiguration {
 
   @Bean
   public AuthHeaderProvider rbacRequestAuthHeaderProvider(DiscoveryBootstrapProperties discoveryProperties,
-      ServiceCombSSLProperties serviceCombSSLProperties,
-      ServiceCombRBACProperties serviceCombRBACProperties) {
-    return new RBACRequestAuthHeaderProvider(discoveryProperties, serviceCombSSLProperties, serviceCombRBACProperties);
+      ServiceCombRBACProperties serviceCombRBACProperties, SharedHttpTransportFactory sharedHttpTransportFactory) {
+    return new RBACRequestAuthHeaderProvider(discoveryProperties, serviceCombRBACProperties,
+        sharedHttpTransportFactory);
   }
 }
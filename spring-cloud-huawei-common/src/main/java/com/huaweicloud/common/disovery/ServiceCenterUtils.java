@@ -19,21 +19,21 @@ package com.huaweicloud.common.disovery;
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.servicecomb.foundation.auth.AuthHeaderProvider;
-import org.apache.servicecomb.http.client.auth.RequestAuthHeaderProvider;
 import org.apache.servicecomb.http.client.common.HttpConfiguration.SSLProperties;
+import org.apache.servicecomb.http.client.common.HttpTransport;
 import org.apache.servicecomb.service.center.client.AddressManager;
 import org.apache.servicecomb.service.center.client.ServiceCenterClient;
+import org.apache.servicecomb.service.center.client.ServiceCenterRawClient;
 import org.apache.servicecomb.service.center.client.ServiceCenterWatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.huaweicloud.common.event.EventManager;
+import com.huaweicloud.common.transport.CachedAuthHeaderProvider;
 import com.huaweicloud.common.transport.DiscoveryBootstrapProperties;
-import com.huaweicloud.common.transport.ServiceCombSSLProperties;
-import com.huaweicloud.common.transport.TransportUtils;
+import com.huaweicloud.common.transport.SharedHttpTransportFactory;
 import com.huaweicloud.common.util.URLUtil;
 
 public class ServiceCenterUtils {
@@ -50,32 +50,26 @@ public class ServiceCenterUtils {
 
   // add other headers needed for registration by new ServiceCenterClient(...)
   public static ServiceCenterClient serviceCenterClient(DiscoveryBootstrapProperties discoveryProperties,
-      ServiceCombSSLProperties serviceCombSSLProperties,
+      SharedHttpTransportFactory httpTransportFactory,
       List<AuthHeaderProvider> authHeaderProviders) {
     AddressManager addressManager = createAddressManager(discoveryProperties);
-    SSLProperties sslProperties = TransportUtils
-        .createSSLProperties(addressManager.sslEnabled(), serviceCombSSLProperties);
-    return new ServiceCenterClient(addressManager, sslProperties,
-        getRequestAuthHeaderProvider(authHeaderProviders),
-        "default", new HashMap<>()).setEventBus(EventManager.getEventBus());
+    HttpTransport httpTransport = httpTransportFactory
+        .createHttpTransport(addressManager.sslEnabled(), new CachedAuthHeaderProvider(authHeaderProviders));
+    ServiceCenterRawClient rawClient = new ServiceCenterRawClient.Builder()
+        .setTenantName("default")
+        .setAddressManager(addressManager)
+        .setHttpTransport(httpTransport).build();
+    return new ServiceCenterClient(rawClient).setEventBus(EventManager.getEventBus());
   }
 
   public static ServiceCenterWatch serviceCenterWatch(DiscoveryBootstrapProperties discoveryProperties,
-      ServiceCombSSLProperties serviceCombSSLProperties,
+      SharedHttpTransportFactory httpTransportFactory,
       List<AuthHeaderProvider> authHeaderProviders) {
     AddressManager addressManager = createAddressManager(discoveryProperties);
-    SSLProperties sslProperties = TransportUtils
-        .createSSLProperties(addressManager.sslEnabled(), serviceCombSSLProperties);
-    return new ServiceCenterWatch(addressManager, sslProperties, getRequestAuthHeaderProvider(authHeaderProviders),
+    // watch uses web socket, only ssl settings can be shared
+    SSLProperties sslProperties = httpTransportFactory.getSSLProperties(addressManager.sslEnabled());
+    return new ServiceCenterWatch(addressManager, sslProperties, new CachedAuthHeaderProvider(authHeaderProviders),
         // TODO: add other headers needed for registration
         "default", new HashMap<>(), EventManager.getEventBus());
   }
-
-  private static RequestAuthHeaderProvider getRequestAuthHeaderProvider(List<AuthHeaderProvider> authHeaderProviders) {
-    return signRequest -> {
-      Map<String, String> headers = new HashMap<>();
-      authHeaderProviders.forEach(provider -> headers.putAll(provider.authHeaders()));
-      return headers;
-    };
-  }
 }
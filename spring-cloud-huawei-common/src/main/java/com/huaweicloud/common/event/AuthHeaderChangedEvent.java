@@ -0,0 +1,34 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.event;
+
+/**
+ * Posted to {@link EventManager} when an auth header provider may return different headers,
+ * e.g. token refreshed or credentials changed.
+ */
+public class AuthHeaderChangedEvent {
+  private final Object provider;
+
+  public AuthHeaderChangedEvent(Object provider) {
+    this.provider = provider;
+  }
+
+  public Object getProvider() {
+    return provider;
+  }
+}
@@ -0,0 +1,40 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.event;
+
+/**
+ * How events of one type are delivered when asynchronous dispatch is enabled.
+ */
+public enum DispatchPolicy {
+  /**
+   * deliver on the posting thread, same as synchronous dispatch.
+   */
+  SYNC,
+  /**
+   * queue events, the posting thread delivers the event itself when the queue is full.
+   */
+  CALLER_RUNS,
+  /**
+   * queue events, the oldest queued event is dropped when the queue is full.
+   */
+  DISCARD_OLDEST,
+  /**
+   * only the latest event is kept, for events that only report current state.
+   */
+  LATEST
+}
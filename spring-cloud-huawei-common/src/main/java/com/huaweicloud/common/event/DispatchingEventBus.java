@@ -0,0 +1,45 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.event;
+
+import com.google.common.eventbus.EventBus;
+
+/**
+ * EventBus that hands posted events to {@link EventDispatcher}. Service center and config center
+ * clients post to this bus directly, so dispatch mode applies to their events too.
+ */
+public class DispatchingEventBus extends EventBus {
+  private final EventDispatcher dispatcher;
+
+  public DispatchingEventBus(EventDispatcher dispatcher) {
+    this.dispatcher = dispatcher;
+  }
+
+  @Override
+  public void post(Object event) {
+    dispatcher.dispatch(event, this::deliver);
+  }
+
+  private void deliver(Object event) {
+    super.post(event);
+  }
+
+  public EventDispatcher getDispatcher() {
+    return dispatcher;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("spring.cloud.servicecomb.event")
+public class EventDispatchProperties {
+  // deliver events on dedicated threads, one for each event type
+  private boolean asyncEnabled = false;
+
+  // max queued events of each event type
+  private int queueSize = 1000;
+
+  private DispatchPolicy defaultPolicy = DispatchPolicy.CALLER_RUNS;
+
+  // event class simple name or full name -> policy
+  private Map<String, DispatchPolicy> policies = new HashMap<>();
+
+  public boolean isAsyncEnabled() {
+    return asyncEnabled;
+  }
+
+  public void setAsyncEnabled(boolean asyncEnabled) {
+    this.asyncEnabled = asyncEnabled;
+  }
+
+  public int getQueueSize() {
+    return queueSize;
+  }
+
+  public void setQueueSize(int queueSize) {
+    this.queueSize = queueSize;
+  }
+
+  public DispatchPolicy getDefaultPolicy() {
+    return defaultPolicy;
+  }
+
+  public void setDefaultPolicy(DispatchPolicy defaultPolicy) {
+    this.defaultPolicy = defaultPolicy;
+  }
+
+  public Map<String, DispatchPolicy> getPolicies() {
+    return policies;
+  }
+
+  public void setPolicies(Map<String, DispatchPolicy> policies) {
+    this.policies = policies;
+  }
+}
@@ -0,0 +1,179 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.event;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides on which thread events are delivered. By default all events are delivered on the posting
+ * thread. When asynchronous dispatch is enabled, each event type has its own bounded queue and thread,
+ * so a slow subscriber of one event type does not block posting or delivery of other event types.
+ */
+public class EventDispatcher {
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventDispatcher.class);
+
+  private final Map<Class<?>, EventTypeQueue> queues = new ConcurrentHashMap<>();
+
+  private volatile boolean asyncEnabled = false;
+
+  private volatile int queueSize = 1000;
+
+  private volatile DispatchPolicy defaultPolicy = DispatchPolicy.CALLER_RUNS;
+
+  private volatile Map<String, DispatchPolicy> policies = Collections.emptyMap();
+
+  /**
+   * configuration only applies to event types not dispatched yet.
+   */
+  public void configure(EventDispatchProperties properties) {
+    this.queueSize = Math.max(1, properties.getQueueSize());
+    this.defaultPolicy = properties.getDefaultPolicy() == null ? DispatchPolicy.CALLER_RUNS
+        : properties.getDefaultPolicy();
+    this.policies = properties.getPolicies() == null ? Collections.emptyMap()
+        : new HashMap<>(properties.getPolicies());
+    this.asyncEnabled = properties.isAsyncEnabled();
+  }
+
+  public boolean isAsyncEnabled() {
+    return asyncEnabled;
+  }
+
+  void dispatch(Object event, Consumer<Object> delivery) {
+    if (!asyncEnabled) {
+      delivery.accept(event);
+      return;
+    }
+    Class<?> eventType = event.getClass();
+    EventTypeQueue queue = queues.get(eventType);
+    if (queue == null) {
+      DispatchPolicy policy = policyOf(eventType);
+      if (policy == DispatchPolicy.SYNC) {
+        delivery.accept(event);
+        return;
+      }
+      queue = queues.computeIfAbsent(eventType, type -> new EventTypeQueue(type, policy, queueSize, delivery));
+    }
+    queue.offer(event);
+  }
+
+  private DispatchPolicy policyOf(Class<?> eventType) {
+    DispatchPolicy policy = policies.get(eventType.getName());
+    if (policy == null) {
+      policy = policies.get(eventType.getSimpleName());
+    }
+    return policy == null ? defaultPolicy : policy;
+  }
+
+  /**
+   * @return event type name -> events waiting to be delivered
+   */
+  public Map<String, Integer> getQueueDepths() {
+    Map<String, Integer> result = new HashMap<>();
+    queues.forEach((type, queue) -> result.put(type.getName(), queue.depth()));
+    return result;
+  }
+
+  /**
+   * @return event type name -> events dropped or coalesced since startup
+   */
+  public Map<String, Long> getDroppedEvents() {
+    Map<String, Long> result = new HashMap<>();
+    queues.forEach((type, queue) -> result.put(type.getName(), queue.dropped.get()));
+    return result;
+  }
+
+  private static class EventTypeQueue {
+    private final Class<?> eventType;
+
+    private final DispatchPolicy policy;
+
+    private final Consumer<Object> delivery;
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicReference<Object> latest = new AtomicReference<>();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    EventTypeQueue(Class<?> eventType, DispatchPolicy policy, int queueSize, Consumer<Object> delivery) {
+      this.eventType = eventType;
+      this.policy = policy;
+      this.delivery = delivery;
+      this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(policy == DispatchPolicy.LATEST ? 1 : queueSize), r -> {
+        Thread thread = new Thread(r, "event-dispatcher-" + eventType.getSimpleName());
+        thread.setDaemon(true);
+        return thread;
+      }, rejectedHandler());
+    }
+
+    private RejectedExecutionHandler rejectedHandler() {
+      if (policy == DispatchPolicy.DISCARD_OLDEST) {
+        return (r, e) -> {
+          if (e.getQueue().poll() != null) {
+            onDropped();
+          }
+          e.execute(r);
+        };
+      }
+      return new ThreadPoolExecutor.CallerRunsPolicy();
+    }
+
+    private void onDropped() {
+      long count = dropped.incrementAndGet();
+      // do not flood the log when subscribers can not keep up
+      if (Long.bitCount(count) == 1) {
+        LOGGER.warn("event queue of {} is full, dropped {} events.", eventType.getName(), count);
+      }
+    }
+
+    void offer(Object event) {
+      if (policy != DispatchPolicy.LATEST) {
+        executor.execute(() -> delivery.accept(event));
+        return;
+      }
+      if (latest.getAndSet(event) != null) {
+        dropped.incrementAndGet();
+        return;
+      }
+      executor.execute(() -> {
+        Object current = latest.getAndSet(null);
+        if (current != null) {
+          delivery.accept(current);
+        }
+      });
+    }
+
+    int depth() {
+      return policy == DispatchPolicy.LATEST ? (latest.get() == null ? 0 : 1) : executor.getQueue().size();
+    }
+  }
+}
@@ -20,12 +20,18 @@ package com.huaweicloud.common.event;
 import com.google.common.eventbus.EventBus;
 
 public class EventManager {
-  private static EventBus eventBus = new EventBus();
+  private static final EventDispatcher eventDispatcher = new EventDispatcher();
+
+  private static final EventBus eventBus = new DispatchingEventBus(eventDispatcher);
 
   public static EventBus getEventBus() {
     return eventBus;
   }
 
+  public static EventDispatcher getEventDispatcher() {
+    return eventDispatcher;
+  }
+
   public static void post(Object event) {
     eventBus.post(event);
   }
@@ -21,10 +21,14 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import org.apache.servicecomb.foundation.auth.AuthHeaderProvider;
 import org.apache.servicecomb.http.client.common.HttpUtils;
 
+import com.huaweicloud.common.event.AuthHeaderChangedEvent;
+import com.huaweicloud.common.event.EventManager;
+
 public class AkSkRequestAuthHeaderProvider implements AuthHeaderProvider {
   public static final String X_SERVICE_AK = "X-Service-AK";
 
@@ -34,20 +38,70 @@ public class AkSkRequestAuthHeaderProvider implements AuthHeaderProvider {
 
   private ServiceCombAkSkProperties serviceCombAkSkProperties;
 
+  private volatile Credentials credentials;
+
   public AkSkRequestAuthHeaderProvider(ServiceCombAkSkProperties serviceCombAkSkProperties) {
     this.serviceCombAkSkProperties = serviceCombAkSkProperties;
   }
 
+  /**
+   * Headers built from the configured values. Values are compared on each access, so headers are rebuilt
+   * only after properties are rebound, whenever and however the refresh happens.
+   */
+  private static final class Credentials {
+    private final boolean enabled;
+
+    private final String accessKey;
+
+    private final String secretKey;
+
+    private final String cipher;
+
+    private final String project;
+
+    private final Map<String, String> headers;
+
+    Credentials(ServiceCombAkSkProperties properties, Map<String, String> headers) {
+      this.enabled = properties != null && properties.isEnabled();
+      this.accessKey = properties == null ? null : properties.getAccessKey();
+      this.secretKey = properties == null ? null : properties.getRawSecretKey();
+      this.cipher = properties == null ? null : properties.getCipher();
+      this.project = properties == null ? null : properties.getProject();
+      this.headers = headers;
+    }
+
+    boolean matches(ServiceCombAkSkProperties properties) {
+      if (properties == null) {
+        return accessKey == null && secretKey == null && !enabled;
+      }
+      return enabled == properties.isEnabled() && Objects.equals(accessKey, properties.getAccessKey())
+          && Objects.equals(secretKey, properties.getRawSecretKey()) && Objects.equals(cipher, properties.getCipher())
+          && Objects.equals(project, properties.getProject());
+    }
+  }
+
   @Override
   public Map<String, String> authHeaders() {
+    Credentials current = credentials;
+    if (current != null && current.matches(serviceCombAkSkProperties)) {
+      return current.headers;
+    }
+    credentials = new Credentials(serviceCombAkSkProperties, createHeaders());
+    if (current != null) {
+      EventManager.post(new AuthHeaderChangedEvent(this));
+    }
+    return credentials.headers;
+  }
+
+  private Map<String, String> createHeaders() {
     if (isAKSKNotEnabled(serviceCombAkSkProperties)) {
       return Collections.emptyMap();
     }
-    Map<String, String> headers = new HashMap<>();
-    headers.put(X_SERVICE_AK, serviceCombAkSkProperties.getAccessKey());
-    headers.put(X_SERVICE_SHA_AKSK, serviceCombAkSkProperties.getSecretKey());
-    headers.put(X_SERVICE_PROJECT, encode(serviceCombAkSkProperties.getProject()));
-    return headers;
+    Map<String, String> result = new HashMap<>();
+    result.put(X_SERVICE_AK, serviceCombAkSkProperties.getAccessKey());
+    result.put(X_SERVICE_SHA_AKSK, serviceCombAkSkProperties.getSecretKey());
+    result.put(X_SERVICE_PROJECT, encode(serviceCombAkSkProperties.getProject()));
+    return Collections.unmodifiableMap(result);
   }
 
   private String encode(String content) {
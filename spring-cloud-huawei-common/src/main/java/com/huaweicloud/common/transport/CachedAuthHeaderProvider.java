@@ -0,0 +1,91 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.transport;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.servicecomb.foundation.auth.AuthHeaderProvider;
+import org.apache.servicecomb.foundation.auth.SignRequest;
+import org.apache.servicecomb.http.client.auth.RequestAuthHeaderProvider;
+
+import com.google.common.eventbus.Subscribe;
+import com.huaweicloud.common.event.AuthHeaderChangedEvent;
+import com.huaweicloud.common.event.EventManager;
+
+/**
+ * Merge headers of all providers once and reuse the merged map for each request, until any provider posts
+ * {@link AuthHeaderChangedEvent}. Providers must post the event when their headers change, RBAC posts it after
+ * the token is refreshed and AK/SK after credentials are rebound.
+ *
+ * Events are counted by one subscriber shared by all instances, so clients created again do not leave
+ * subscribers on the event bus.
+ */
+public class CachedAuthHeaderProvider implements RequestAuthHeaderProvider {
+  private static final AtomicLong VERSION = new AtomicLong();
+
+  static {
+    EventManager.register(new ChangeListener());
+  }
+
+  private final List<AuthHeaderProvider> authHeaderProviders;
+
+  private volatile Merged merged;
+
+  private static final class Merged {
+    private final long version;
+
+    private final Map<String, String> headers;
+
+    Merged(long version, Map<String, String> headers) {
+      this.version = version;
+      this.headers = headers;
+    }
+  }
+
+  private static final class ChangeListener {
+    @Subscribe
+    public void onAuthHeaderChangedEvent(AuthHeaderChangedEvent event) {
+      VERSION.incrementAndGet();
+    }
+  }
+
+  public CachedAuthHeaderProvider(List<AuthHeaderProvider> authHeaderProviders) {
+    this.authHeaderProviders = authHeaderProviders;
+  }
+
+  @Override
+  public Map<String, String> loadAuthHeader(SignRequest signRequest) {
+    Merged current = merged;
+    // read before asking providers, so a change while merging is merged again by the next request
+    long version = VERSION.get();
+    if (current != null && current.version == version) {
+      return current.headers;
+    }
+    Map<String, String> headers = new HashMap<>();
+    for (AuthHeaderProvider provider : authHeaderProviders) {
+      headers.putAll(provider.authHeaders());
+    }
+    current = new Merged(version, Collections.unmodifiableMap(headers));
+    merged = current;
+    return current.headers;
+  }
+}
@@ -0,0 +1,159 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.protocol.HTTP;
+
+/**
+ * Interceptors compressing request bodies and counting body bytes.
+ *
+ * Responses are decompressed by the http client itself when server accepts the Accept-Encoding it sends,
+ * these interceptors only count bytes before and after decompression.
+ */
+final class CompressionInterceptors {
+  private static final String GZIP = "gzip";
+
+  private static final String RECORDED = CompressionInterceptors.class.getName() + ".recorded";
+
+  private CompressionInterceptors() {
+  }
+
+  /**
+   * gzip request bodies not smaller than minSize, must run before the body is written.
+   */
+  static HttpRequestInterceptor compressRequest(boolean enabled, int minSize, CompressionStats stats) {
+    return (request, context) -> {
+      if (!(request instanceof HttpEntityEnclosingRequest)) {
+        return;
+      }
+      HttpEntityEnclosingRequest entityRequest = (HttpEntityEnclosingRequest) request;
+      HttpEntity entity = entityRequest.getEntity();
+      if (entity == null || entity.getContentLength() < 0) {
+        return;
+      }
+      // already encoded, including bodies compressed here and sent again by retries, recorded before
+      if (entity.getContentEncoding() != null || request.containsHeader(HTTP.CONTENT_ENCODING)) {
+        return;
+      }
+      // retries of bodies not compressed run the interceptor again with the same context
+      if (context.getAttribute(RECORDED) != null) {
+        return;
+      }
+      context.setAttribute(RECORDED, Boolean.TRUE);
+      long length = entity.getContentLength();
+      if (!enabled || length < minSize) {
+        stats.recordRequest(length, length);
+        return;
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(length, Integer.MAX_VALUE) / 4);
+      try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+        entity.writeTo(gzip);
+      }
+      ByteArrayEntity compressed = new ByteArrayEntity(out.toByteArray());
+      compressed.setContentType(entity.getContentType());
+      compressed.setContentEncoding(GZIP);
+      entityRequest.setEntity(compressed);
+      stats.recordRequest(length, compressed.getContentLength());
+    };
+  }
+
+  /**
+   * count response body bytes, added before response decompression to count bytes on wire, and after
+   * decompression to count decoded bytes.
+   */
+  static HttpResponseInterceptor countResponse(AtomicLong counter) {
+    return (response, context) -> {
+      if (response.getEntity() != null) {
+        response.setEntity(new CountingEntity(response.getEntity(), counter));
+      }
+    };
+  }
+
+  private static class CountingEntity extends HttpEntityWrapper {
+    private final AtomicLong counter;
+
+    CountingEntity(HttpEntity wrappedEntity, AtomicLong counter) {
+      super(wrappedEntity);
+      this.counter = counter;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+      return new CountingInputStream(super.getContent(), counter);
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+      try (InputStream in = getContent()) {
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+          outStream.write(buffer, 0, n);
+        }
+      }
+    }
+  }
+
+  private static class CountingInputStream extends FilterInputStream {
+    private final AtomicLong counter;
+
+    CountingInputStream(InputStream in, AtomicLong counter) {
+      super(in);
+      this.counter = counter;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1) {
+        counter.incrementAndGet();
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) {
+        counter.addAndGet(n);
+      }
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      counter.addAndGet(skipped);
+      return skipped;
+    }
+  }
+}
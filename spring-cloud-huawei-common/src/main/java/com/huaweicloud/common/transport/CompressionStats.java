@@ -0,0 +1,72 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.transport;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Body bytes sent and received by shared http transports, before and after gzip compression.
+ */
+public class CompressionStats {
+  private final AtomicLong requestBytes = new AtomicLong();
+
+  private final AtomicLong requestWireBytes = new AtomicLong();
+
+  private final AtomicLong responseBytes = new AtomicLong();
+
+  private final AtomicLong responseWireBytes = new AtomicLong();
+
+  void recordRequest(long bytes, long wireBytes) {
+    requestBytes.addAndGet(bytes);
+    requestWireBytes.addAndGet(wireBytes);
+  }
+
+  AtomicLong responseBytesCounter() {
+    return responseBytes;
+  }
+
+  AtomicLong responseWireBytesCounter() {
+    return responseWireBytes;
+  }
+
+  public long getRequestBytes() {
+    return requestBytes.get();
+  }
+
+  public long getRequestWireBytes() {
+    return requestWireBytes.get();
+  }
+
+  public long getResponseBytes() {
+    return responseBytes.get();
+  }
+
+  public long getResponseWireBytes() {
+    return responseWireBytes.get();
+  }
+
+  @Override
+  public String toString() {
+    return "CompressionStats{" +
+        "requestBytes=" + requestBytes +
+        ", requestWireBytes=" + requestWireBytes +
+        ", responseBytes=" + responseBytes +
+        ", responseWireBytes=" + responseWireBytes +
+        '}';
+  }
+}
@@ -17,6 +17,9 @@
 
 package com.huaweicloud.common.transport;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.servicecomb.service.center.client.model.DataCenterInfo;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -57,6 +60,10 @@ public class DiscoveryBootstrapProperties {
 
   private int refreshInterval = 30000;
 
+  // milliseconds, instance changes in this window are published as one HeartbeatEvent, 0 (default) publishes
+  // each change immediately
+  private int instanceChangedEventWindow = 0;
+
   private boolean autoDiscovery = false;
 
   @Value("${spring.cloud.servicecomb.discovery.allowCrossApp:false}")
@@ -70,6 +77,54 @@ public class DiscoveryBootstrapProperties {
 
   private DataCenterInfo datacenter;
 
+  // services to subscribe when first registered, format is serviceName or appName.serviceName
+  private List<String> warmUpServices = new ArrayList<>();
+
+  // also subscribe services referenced by @FeignClient
+  private boolean warmUpFeignClients = false;
+
+  // readiness is accepted after this time in milliseconds from startup even if warm up is not finished
+  private long warmUpTimeout = 60000;
+
+  // persist discovered instances to local file, and use them when service center is not available
+  private boolean instanceSnapshotEnabled = false;
+
+  // default is ${java.io.tmpdir}/servicecomb/${appName}.${serviceName}.instances
+  private String instanceSnapshotFile;
+
+  // open keep-alive connections to newly discovered instances before real requests
+  private boolean preConnectEnabled = false;
+
+  // JDK keeps at most http.maxConnections (default 5) idle connections per destination
+  private int preConnectCount = 2;
+
+  // required when preConnectEnabled, each connection sends a real GET to this path, use a cheap endpoint
+  private String preConnectPath;
+
+  private int preConnectTimeout = 3000;
+
+  // resolve and probe service center and config center endpoints again in this interval in milliseconds,
+  // 0 (default) means resolve only once without probing
+  private int endpointRefreshInterval = 0;
+
+  private int endpointProbeTimeout = 1000;
+
+  // endpoints with connect time more than this ratio of the fastest one are isolated
+  private double endpointSlowRatio = 2.0;
+
+  // register instance first, then generate and upload schemas in background
+  private boolean schemaRegistrationAsync = false;
+
+  // refuse traffic until schemas are uploaded, only used when schemaRegistrationAsync is true
+  private boolean schemaReadinessRequired = false;
+
+  // readiness is accepted after this time in milliseconds from registration even if schemas are not uploaded
+  private long schemaReadinessTimeout = 60000;
+
+  // upload changed schemas of an already registered microservice version, service center may reject them
+  // in production environment
+  private boolean updateRegisteredSchemas = false;
+
   public String getServerAddress() {
     return serverAddress;
   }
@@ -198,6 +253,14 @@ public class DiscoveryBootstrapProperties {
     this.refreshInterval = refreshInterval;
   }
 
+  public int getInstanceChangedEventWindow() {
+    return instanceChangedEventWindow;
+  }
+
+  public void setInstanceChangedEventWindow(int instanceChangedEventWindow) {
+    this.instanceChangedEventWindow = instanceChangedEventWindow;
+  }
+
   public boolean isAutoDiscovery() {
     return autoDiscovery;
   }
@@ -230,6 +293,134 @@ public class DiscoveryBootstrapProperties {
     this.watch = watch;
   }
 
+  public List<String> getWarmUpServices() {
+    return warmUpServices;
+  }
+
+  public void setWarmUpServices(List<String> warmUpServices) {
+    this.warmUpServices = warmUpServices;
+  }
+
+  public boolean isWarmUpFeignClients() {
+    return warmUpFeignClients;
+  }
+
+  public void setWarmUpFeignClients(boolean warmUpFeignClients) {
+    this.warmUpFeignClients = warmUpFeignClients;
+  }
+
+  public long getWarmUpTimeout() {
+    return warmUpTimeout;
+  }
+
+  public void setWarmUpTimeout(long warmUpTimeout) {
+    this.warmUpTimeout = warmUpTimeout;
+  }
+
+  public boolean isInstanceSnapshotEnabled() {
+    return instanceSnapshotEnabled;
+  }
+
+  public void setInstanceSnapshotEnabled(boolean instanceSnapshotEnabled) {
+    this.instanceSnapshotEnabled = instanceSnapshotEnabled;
+  }
+
+  public String getInstanceSnapshotFile() {
+    return instanceSnapshotFile;
+  }
+
+  public void setInstanceSnapshotFile(String instanceSnapshotFile) {
+    this.instanceSnapshotFile = instanceSnapshotFile;
+  }
+
+  public boolean isPreConnectEnabled() {
+    return preConnectEnabled;
+  }
+
+  public void setPreConnectEnabled(boolean preConnectEnabled) {
+    this.preConnectEnabled = preConnectEnabled;
+  }
+
+  public int getPreConnectCount() {
+    return preConnectCount;
+  }
+
+  public void setPreConnectCount(int preConnectCount) {
+    this.preConnectCount = preConnectCount;
+  }
+
+  public String getPreConnectPath() {
+    return preConnectPath;
+  }
+
+  public void setPreConnectPath(String preConnectPath) {
+    this.preConnectPath = preConnectPath;
+  }
+
+  public int getPreConnectTimeout() {
+    return preConnectTimeout;
+  }
+
+  public void setPreConnectTimeout(int preConnectTimeout) {
+    this.preConnectTimeout = preConnectTimeout;
+  }
+
+  public int getEndpointRefreshInterval() {
+    return endpointRefreshInterval;
+  }
+
+  public void setEndpointRefreshInterval(int endpointRefreshInterval) {
+    this.endpointRefreshInterval = endpointRefreshInterval;
+  }
+
+  public int getEndpointProbeTimeout() {
+    return endpointProbeTimeout;
+  }
+
+  public void setEndpointProbeTimeout(int endpointProbeTimeout) {
+    this.endpointProbeTimeout = endpointProbeTimeout;
+  }
+
+  public double getEndpointSlowRatio() {
+    return endpointSlowRatio;
+  }
+
+  public void setEndpointSlowRatio(double endpointSlowRatio) {
+    this.endpointSlowRatio = endpointSlowRatio;
+  }
+
+  public boolean isSchemaRegistrationAsync() {
+    return schemaRegistrationAsync;
+  }
+
+  public void setSchemaRegistrationAsync(boolean schemaRegistrationAsync) {
+    this.schemaRegistrationAsync = schemaRegistrationAsync;
+  }
+
+  public boolean isSchemaReadinessRequired() {
+    return schemaReadinessRequired;
+  }
+
+  public void setSchemaReadinessRequired(boolean schemaReadinessRequired) {
+    this.schemaReadinessRequired = schemaReadinessRequired;
+  }
+
+  public long getSchemaReadinessTimeout() {
+    return schemaReadinessTimeout;
+  }
+
+  public void setSchemaReadinessTimeout(long schemaReadinessTimeout) {
+    this.schemaReadinessTimeout = schemaReadinessTimeout;
+  }
+
+  public boolean isUpdateRegisteredSchemas() {
+    return updateRegisteredSchemas;
+  }
+
+  public void setUpdateRegisteredSchemas(boolean updateRegisteredSchemas) {
+    this.updateRegisteredSchemas = updateRegisteredSchemas;
+  }
+
   @Override
   public String toString() {
     return "ServiceCombDiscoveryProperties{" +
@@ -0,0 +1,54 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.transport;
+
+import java.io.IOException;
+import java.net.Socket;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Record handshake duration, and whether the TLS session is resumed.
+ */
+class HandshakeRecordingSocketFactory extends SSLConnectionSocketFactory {
+  private final HandshakeStats handshakeStats;
+
+  HandshakeRecordingSocketFactory(SSLContext sslContext, HostnameVerifier hostnameVerifier,
+      HandshakeStats handshakeStats) {
+    super(sslContext, hostnameVerifier);
+    this.handshakeStats = handshakeStats;
+  }
+
+  @Override
+  public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+      throws IOException {
+    long begin = System.currentTimeMillis();
+    Socket result = super.createLayeredSocket(socket, target, port, context);
+    long end = System.currentTimeMillis();
+    if (result instanceof SSLSocket) {
+      // a resumed session was created by an earlier handshake
+      handshakeStats.record(((SSLSocket) result).getSession().getCreationTime() < begin, end - begin);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.transport;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TLS handshakes made by shared http transports.
+ */
+public class HandshakeStats {
+  private final AtomicLong fullHandshakes = new AtomicLong();
+
+  private final AtomicLong resumedHandshakes = new AtomicLong();
+
+  private final AtomicLong fullHandshakeMillis = new AtomicLong();
+
+  private final AtomicLong resumedHandshakeMillis = new AtomicLong();
+
+  void record(boolean resumed, long millis) {
+    if (resumed) {
+      resumedHandshakes.incrementAndGet();
+      resumedHandshakeMillis.addAndGet(millis);
+    } else {
+      fullHandshakes.incrementAndGet();
+      fullHandshakeMillis.addAndGet(millis);
+    }
+  }
+
+  public long getFullHandshakes() {
+    return fullHandshakes.get();
+  }
+
+  public long getResumedHandshakes() {
+    return resumedHandshakes.get();
+  }
+
+  public long getFullHandshakeMillis() {
+    return fullHandshakeMillis.get();
+  }
+
+  public long getResumedHandshakeMillis() {
+    return resumedHandshakeMillis.get();
+  }
+
+  @Override
+  public String toString() {
+    return "HandshakeStats{" +
+        "fullHandshakes=" + fullHandshakes +
+        ", fullHandshakeMillis=" + fullHandshakeMillis +
+        ", resumedHandshakes=" + resumedHandshakes +
+        ", resumedHandshakeMillis=" + resumedHandshakeMillis +
+        '}';
+  }
+}
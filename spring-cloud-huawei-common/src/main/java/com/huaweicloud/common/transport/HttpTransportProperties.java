@@ -0,0 +1,133 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.transport;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection pool settings of the http clients connecting to service center and config center.
+ */
+@ConfigurationProperties("spring.cloud.servicecomb.transport")
+public class HttpTransportProperties {
+  private int maxTotal = 100;
+
+  private int maxPerRoute = 10;
+
+  // keep alive time when server does not send Keep-Alive header
+  private long keepAliveTime = 30000;
+
+  // connections idle longer than this are closed
+  private long idleTimeout = 60000;
+
+  // cached TLS sessions for resumption
+  private int sslSessionCacheSize = 1000;
+
+  // seconds
+  private int sslSessionTimeout = 86400;
+
+  // send Accept-Encoding and decompress gzip or deflate responses
+  private boolean responseCompressionEnabled = true;
+
+  // gzip request bodies, service center must accept Content-Encoding: gzip
+  private boolean requestCompressionEnabled = false;
+
+  private int requestCompressionMinSize = 1024;
+
+  // interval to log pool, handshake and compression stats, 0 to log only when closed
+  private long statsLogInterval = 0;
+
+  public int getMaxTotal() {
+    return maxTotal;
+  }
+
+  public void setMaxTotal(int maxTotal) {
+    this.maxTotal = maxTotal;
+  }
+
+  public int getMaxPerRoute() {
+    return maxPerRoute;
+  }
+
+  public void setMaxPerRoute(int maxPerRoute) {
+    this.maxPerRoute = maxPerRoute;
+  }
+
+  public long getKeepAliveTime() {
+    return keepAliveTime;
+  }
+
+  public void setKeepAliveTime(long keepAliveTime) {
+    this.keepAliveTime = keepAliveTime;
+  }
+
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  public void setIdleTimeout(long idleTimeout) {
+    this.idleTimeout = idleTimeout;
+  }
+
+  public int getSslSessionCacheSize() {
+    return sslSessionCacheSize;
+  }
+
+  public void setSslSessionCacheSize(int sslSessionCacheSize) {
+    this.sslSessionCacheSize = sslSessionCacheSize;
+  }
+
+  public int getSslSessionTimeout() {
+    return sslSessionTimeout;
+  }
+
+  public void setSslSessionTimeout(int sslSessionTimeout) {
+    this.sslSessionTimeout = sslSessionTimeout;
+  }
+
+  public boolean isResponseCompressionEnabled() {
+    return responseCompressionEnabled;
+  }
+
+  public void setResponseCompressionEnabled(boolean responseCompressionEnabled) {
+    this.responseCompressionEnabled = responseCompressionEnabled;
+  }
+
+  public boolean isRequestCompressionEnabled() {
+    return requestCompressionEnabled;
+  }
+
+  public void setRequestCompressionEnabled(boolean requestCompressionEnabled) {
+    this.requestCompressionEnabled = requestCompressionEnabled;
+  }
+
+  public int getRequestCompressionMinSize() {
+    return requestCompressionMinSize;
+  }
+
+  public void setRequestCompressionMinSize(int requestCompressionMinSize) {
+    this.requestCompressionMinSize = requestCompressionMinSize;
+  }
+
+  public long getStatsLogInterval() {
+    return statsLogInterval;
+  }
+
+  public void setStatsLogInterval(long statsLogInterval) {
+    this.statsLogInterval = statsLogInterval;
+  }
+}
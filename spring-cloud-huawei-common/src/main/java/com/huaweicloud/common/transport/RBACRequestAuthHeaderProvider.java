@@ -20,14 +20,17 @@ package com.huaweicloud.common.transport;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ws.rs.core.Response.Status;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.servicecomb.foundation.auth.AuthHeaderProvider;
+import org.apache.servicecomb.http.client.common.HttpConfiguration.SSLProperties;
+import org.apache.servicecomb.service.center.client.AddressManager;
 import org.apache.servicecomb.service.center.client.OperationEvents;
 import org.apache.servicecomb.service.center.client.ServiceCenterClient;
 import org.apache.servicecomb.service.center.client.model.RbacTokenRequest;
@@ -39,9 +42,8 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.eventbus.Subscribe;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.ListenableFuture;
 import com.huaweicloud.common.disovery.ServiceCenterUtils;
+import com.huaweicloud.common.event.AuthHeaderChangedEvent;
 import com.huaweicloud.common.event.EventManager;
 
 public class RBACRequestAuthHeaderProvider implements AuthHeaderProvider {
@@ -60,13 +62,26 @@ public class RBACRequestAuthHeaderProvider implements AuthHeaderProvider {
 
   private static final long TOKEN_REFRESH_TIME_IN_SECONDS = 20 * 60 * 1000;
 
+  private static final long RETRY_DELAY = 5000;
+
   private final DiscoveryBootstrapProperties discoveryProperties;
 
+  private final ServiceCombRBACProperties serviceCombRBACProperties;
+
+  private final SharedHttpTransportFactory httpTransportFactory;
+
+  // only used when there is no shared http transport factory
   private final ServiceCombSSLProperties serviceCombSSLProperties;
 
-  private final ServiceCombRBACProperties serviceCombRBACProperties;
+  private volatile ServiceCenterClient serviceCenterClient;
+
+  private volatile String lastToken;
+
+  private volatile Map<String, String> lastHeaders = Collections.emptyMap();
+
+  private ScheduledExecutorService executorService;
 
-  private ExecutorService executorService;
+  private final AtomicBoolean retryScheduled = new AtomicBoolean(false);
 
   private LoadingCache<String, String> cache;
 
@@ -74,30 +89,44 @@ public class RBACRequestAuthHeaderProvider implements AuthHeaderProvider {
 
   private int lastStatusCode = 401;
 
+  /**
+   * @deprecated token client does not share the connection pool, use the constructor with
+   * {@link SharedHttpTransportFactory}
+   */
+  @Deprecated
   public RBACRequestAuthHeaderProvider(DiscoveryBootstrapProperties discoveryProperties,
       ServiceCombSSLProperties serviceCombSSLProperties,
       ServiceCombRBACProperties serviceCombRBACProperties) {
+    this(discoveryProperties, serviceCombSSLProperties, serviceCombRBACProperties, null);
+  }
+
+  public RBACRequestAuthHeaderProvider(DiscoveryBootstrapProperties discoveryProperties,
+      ServiceCombRBACProperties serviceCombRBACProperties, SharedHttpTransportFactory httpTransportFactory) {
+    this(discoveryProperties, null, serviceCombRBACProperties, httpTransportFactory);
+  }
+
+  private RBACRequestAuthHeaderProvider(DiscoveryBootstrapProperties discoveryProperties,
+      ServiceCombSSLProperties serviceCombSSLProperties, ServiceCombRBACProperties serviceCombRBACProperties,
+      SharedHttpTransportFactory httpTransportFactory) {
     this.discoveryProperties = discoveryProperties;
     this.serviceCombSSLProperties = serviceCombSSLProperties;
     this.serviceCombRBACProperties = serviceCombRBACProperties;
+    this.httpTransportFactory = httpTransportFactory;
     EventManager.getEventBus().register(this);
 
     if (enabled()) {
-      executorService = Executors.newFixedThreadPool(1, t -> new Thread(t, "rbac-executor"));
+      executorService = Executors.newSingleThreadScheduledExecutor(t -> new Thread(t, "rbac-executor"));
       cache = CacheBuilder.newBuilder()
           .maximumSize(1)
-          .refreshAfterWrite(refreshTime(), TimeUnit.MILLISECONDS)
           .build(new CacheLoader<String, String>() {
             @Override
             public String load(String key) {
               return createHeaders();
             }
-
-            @Override
-            public ListenableFuture<String> reload(String key, String oldValue) {
-              return Futures.submit(() -> createHeaders(), executorService);
-            }
           });
+      // refreshed in background instead of when headers are read, merged headers are cached by clients
+      executorService.scheduleWithFixedDelay(this::refreshToken, refreshTime(), refreshTime(),
+          TimeUnit.MILLISECONDS);
     }
   }
 
@@ -129,14 +158,33 @@ public class RBACRequestAuthHeaderProvider implements AuthHeaderProvider {
   }
 
   protected RbacTokenResponse callCreateHeaders() {
-    ServiceCenterClient serviceCenterClient = ServiceCenterUtils
-        .serviceCenterClient(discoveryProperties, serviceCombSSLProperties,
-            Collections.emptyList());
     RbacTokenRequest request = new RbacTokenRequest();
     request.setName(serviceCombRBACProperties.getName());
     request.setPassword(serviceCombRBACProperties.getPassword());
 
-    return serviceCenterClient.queryToken(request);
+    return getServiceCenterClient().queryToken(request);
+  }
+
+  // token client does not need auth headers, and is reused for each refresh
+  private ServiceCenterClient getServiceCenterClient() {
+    if (serviceCenterClient == null) {
+      synchronized (this) {
+        if (serviceCenterClient == null) {
+          serviceCenterClient = httpTransportFactory == null ? createPlainServiceCenterClient()
+              : ServiceCenterUtils.serviceCenterClient(discoveryProperties, httpTransportFactory,
+                  Collections.emptyList());
+        }
+      }
+    }
+    return serviceCenterClient;
+  }
+
+  private ServiceCenterClient createPlainServiceCenterClient() {
+    AddressManager addressManager = ServiceCenterUtils.createAddressManager(discoveryProperties);
+    SSLProperties sslProperties = TransportUtils
+        .createSSLProperties(addressManager.sslEnabled(), serviceCombSSLProperties);
+    return new ServiceCenterClient(addressManager, sslProperties, signRequest -> Collections.emptyMap(),
+        "default", new HashMap<>()).setEventBus(EventManager.getEventBus());
   }
 
   protected long refreshTime() {
@@ -152,16 +200,31 @@ public class RBACRequestAuthHeaderProvider implements AuthHeaderProvider {
     try {
       String header = cache.get(CACHE_KEY);
       if (!StringUtils.isEmpty(header)) {
-        Map<String, String> tokens = new HashMap<>(1);
-        tokens.put(AUTH_HEADER, "Bearer " + header);
-        return tokens;
+        // build headers only when token changed, notify after the new token is cached
+        if (!header.equals(lastToken)) {
+          lastHeaders = Collections.singletonMap(AUTH_HEADER, "Bearer " + header);
+          lastToken = header;
+          EventManager.post(new AuthHeaderChangedEvent(this));
+        }
+        return lastHeaders;
       }
     } catch (Exception e) {
       LOGGER.error("Get auth headers failed", e);
     }
+    // headers are not read again until they change, retry soon instead of waiting for the next refresh
+    scheduleRetry();
     return Collections.emptyMap();
   }
 
+  private void scheduleRetry() {
+    if (retryScheduled.compareAndSet(false, true)) {
+      executorService.schedule(() -> {
+        retryScheduled.set(false);
+        refreshToken();
+      }, RETRY_DELAY, TimeUnit.MILLISECONDS);
+    }
+  }
+
   private boolean enabled() {
     return !StringUtils.isEmpty(serviceCombRBACProperties.getName()) && !StringUtils
         .isEmpty(serviceCombRBACProperties.getPassword());
@@ -169,7 +232,17 @@ public class RBACRequestAuthHeaderProvider implements AuthHeaderProvider {
 
   private void retryRefresh() {
     if (Status.UNAUTHORIZED.getStatusCode() == lastStatusCode && UN_AUTHORIZED_CODE_HALF_OPEN.equals(lastErrorCode)) {
-      cache.refresh(discoveryProperties.getServiceName());
+      refreshToken();
+    }
+  }
+
+  private void refreshToken() {
+    try {
+      cache.refresh(CACHE_KEY);
+      // notify when the refreshed token differs
+      authHeaders();
+    } catch (RuntimeException e) {
+      LOGGER.warn("refresh RBAC token failed, {}", e.getMessage());
     }
   }
 }
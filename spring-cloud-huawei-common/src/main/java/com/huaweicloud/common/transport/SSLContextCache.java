@@ -0,0 +1,62 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.transport;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.servicecomb.foundation.ssl.SSLManager;
+import org.apache.servicecomb.foundation.ssl.SSLOption;
+import org.apache.servicecomb.http.client.common.HttpConfiguration.SSLProperties;
+
+/**
+ * Reuse SSL contexts built from the same ssl settings. TLS sessions are cached in SSLContext, so sharing
+ * the context lets new connections resume sessions instead of doing full handshakes.
+ */
+public final class SSLContextCache {
+  private static final Map<String, SSLContext> CONTEXTS = new ConcurrentHashMap<>();
+
+  private SSLContextCache() {
+  }
+
+  public static SSLContext getSSLContext(SSLProperties sslProperties, int sessionCacheSize, int sessionTimeout) {
+    return CONTEXTS.computeIfAbsent(cacheKey(sslProperties, sessionCacheSize, sessionTimeout), key -> {
+      SSLContext sslContext = SSLManager.createSSLContext(sslProperties.getSslOption(), sslProperties.getSslCustom());
+      sslContext.getClientSessionContext().setSessionCacheSize(sessionCacheSize);
+      sslContext.getClientSessionContext().setSessionTimeout(sessionTimeout);
+      return sslContext;
+    });
+  }
+
+  private static String cacheKey(SSLProperties sslProperties, int sessionCacheSize, int sessionTimeout) {
+    SSLOption option = sslProperties.getSslOption();
+    return new StringJoiner("|")
+        .add(option.getEngine()).add(option.getProtocols()).add(option.getCiphers())
+        .add(String.valueOf(option.isAuthPeer())).add(String.valueOf(option.isCheckCNHost()))
+        .add(String.valueOf(option.isCheckCNWhite())).add(option.getCheckCNWhiteFile())
+        .add(String.valueOf(option.isAllowRenegociate())).add(option.getStorePath())
+        .add(option.getTrustStore()).add(option.getTrustStoreType()).add(option.getTrustStoreValue())
+        .add(option.getKeyStore()).add(option.getKeyStoreType()).add(option.getKeyStoreValue())
+        .add(option.getCrl()).add(option.getSslCustomClass())
+        .add(String.valueOf(sessionCacheSize)).add(String.valueOf(sessionTimeout))
+        .toString();
+  }
+}
@@ -20,17 +20,20 @@ package com.huaweicloud.common.transport;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import com.huaweicloud.common.event.AuthHeaderChangedEvent;
+import com.huaweicloud.common.event.EventManager;
 import com.huaweicloud.common.util.Cipher;
 import com.huaweicloud.common.util.DefaultCipher;
 import com.huaweicloud.common.util.SecretUtil;
 import com.huaweicloud.common.util.ShaAKSKCipher;
 
 @ConfigurationProperties("spring.cloud.servicecomb.credentials")
-public class ServiceCombAkSkProperties {
+public class ServiceCombAkSkProperties implements InitializingBean {
 
   @Autowired(required = false)
   private List<Cipher> ciphers;
@@ -75,6 +78,11 @@ public class ServiceCombAkSkProperties {
     return SecretUtil.sha256Encode(decodedSecretKey, this.accessKey);
   }
 
+  // raw configured value, used to find out whether credentials changed without decrypting
+  String getRawSecretKey() {
+    return secretKey;
+  }
+
   public void setSecretKey(String secretKey) {
     this.secretKey = secretKey;
   }
@@ -114,4 +122,12 @@ public class ServiceCombAkSkProperties {
   public boolean isEmpty() {
     return getAccessKey() == null || getSecretKey() == null;
   }
+
+  /**
+   * called after binding, and again after properties are rebound by a configuration refresh
+   */
+  @Override
+  public void afterPropertiesSet() {
+    EventManager.post(new AuthHeaderChangedEvent(this));
+  }
 }
@@ -0,0 +1,186 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.transport;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.servicecomb.http.client.auth.RequestAuthHeaderProvider;
+import org.apache.servicecomb.http.client.common.HttpConfiguration.SSLProperties;
+import org.apache.servicecomb.http.client.common.HttpTransport;
+import org.apache.servicecomb.http.client.common.HttpTransportFactory;
+import org.apache.servicecomb.http.client.common.HttpTransportImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Create http transports for service center, config center and RBAC clients. All transports with the same
+ * ssl setting share one connection pool and one SSL context, while each of them keeps its own
+ * auth headers and request timeouts.
+ *
+ * SSL contexts are shared through {@link SSLContextCache}, so reconnecting after a service center
+ * failover resumes TLS sessions when the server allows.
+ */
+public class SharedHttpTransportFactory implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedHttpTransportFactory.class);
+
+  private static final long EVICT_INTERVAL = 5000;
+
+  private final HttpTransportProperties httpTransportProperties;
+
+  private final ServiceCombSSLProperties serviceCombSSLProperties;
+
+  private final Map<Boolean, SSLProperties> sslProperties = new ConcurrentHashMap<>();
+
+  private final Map<Boolean, PoolingHttpClientConnectionManager> connectionManagers = new ConcurrentHashMap<>();
+
+  private final Map<Boolean, IdleConnectionEvictor> evictors = new ConcurrentHashMap<>();
+
+  private final HandshakeStats handshakeStats = new HandshakeStats();
+
+  private final CompressionStats compressionStats = new CompressionStats();
+
+  private ScheduledExecutorService statsLogger;
+
+  public SharedHttpTransportFactory(HttpTransportProperties httpTransportProperties,
+      ServiceCombSSLProperties serviceCombSSLProperties) {
+    this.httpTransportProperties = httpTransportProperties;
+    this.serviceCombSSLProperties = serviceCombSSLProperties;
+    if (httpTransportProperties.getStatsLogInterval() > 0) {
+      statsLogger = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "transport-stats");
+        thread.setDaemon(true);
+        return thread;
+      });
+      statsLogger.scheduleWithFixedDelay(this::logStats, httpTransportProperties.getStatsLogInterval(),
+          httpTransportProperties.getStatsLogInterval(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public SSLProperties getSSLProperties(boolean sslEnabled) {
+    return sslProperties.computeIfAbsent(sslEnabled,
+        enabled -> TransportUtils.createSSLProperties(enabled, serviceCombSSLProperties));
+  }
+
+  public HttpTransport createHttpTransport(boolean sslEnabled, RequestAuthHeaderProvider requestAuthHeaderProvider) {
+    return createHttpTransport(sslEnabled, requestAuthHeaderProvider,
+        HttpTransportFactory.defaultRequestConfig().build());
+  }
+
+  public HttpTransport createHttpTransport(boolean sslEnabled, RequestAuthHeaderProvider requestAuthHeaderProvider,
+      RequestConfig requestConfig) {
+    HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
+        .setConnectionManager(connectionManager(sslEnabled))
+        .setConnectionManagerShared(true)
+        .setDefaultRequestConfig(requestConfig)
+        .setKeepAliveStrategy((response, context) -> {
+          long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+          return keepAlive > 0 ? keepAlive : httpTransportProperties.getKeepAliveTime();
+        })
+        .disableCookieManagement()
+        .addInterceptorFirst(CompressionInterceptors.compressRequest(
+            httpTransportProperties.isRequestCompressionEnabled(),
+            httpTransportProperties.getRequestCompressionMinSize(), compressionStats))
+        .addInterceptorFirst(CompressionInterceptors.countResponse(compressionStats.responseWireBytesCounter()))
+        .addInterceptorLast(CompressionInterceptors.countResponse(compressionStats.responseBytesCounter()));
+    if (!httpTransportProperties.isResponseCompressionEnabled()) {
+      httpClientBuilder.disableContentCompression();
+    }
+    return new HttpTransportImpl(httpClientBuilder.build(), requestAuthHeaderProvider);
+  }
+
+  private PoolingHttpClientConnectionManager connectionManager(boolean sslEnabled) {
+    return connectionManagers.computeIfAbsent(sslEnabled, enabled -> {
+      RegistryBuilder<ConnectionSocketFactory> registryBuilder = RegistryBuilder.<ConnectionSocketFactory>create()
+          .register("http", PlainConnectionSocketFactory.INSTANCE);
+      if (enabled) {
+        SSLProperties ssl = getSSLProperties(true);
+        registryBuilder.register("https", new HandshakeRecordingSocketFactory(
+            SSLContextCache.getSSLContext(ssl, httpTransportProperties.getSslSessionCacheSize(),
+                httpTransportProperties.getSslSessionTimeout()),
+            NoopHostnameVerifier.INSTANCE, handshakeStats));
+      }
+      Registry<ConnectionSocketFactory> registry = registryBuilder.build();
+      PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry);
+      connectionManager.setMaxTotal(httpTransportProperties.getMaxTotal());
+      connectionManager.setDefaultMaxPerRoute(httpTransportProperties.getMaxPerRoute());
+      if (httpTransportProperties.getIdleTimeout() > 0) {
+        IdleConnectionEvictor evictor = new IdleConnectionEvictor(connectionManager,
+            Math.min(EVICT_INTERVAL, httpTransportProperties.getIdleTimeout()), TimeUnit.MILLISECONDS,
+            httpTransportProperties.getIdleTimeout(), TimeUnit.MILLISECONDS);
+        evictor.start();
+        evictors.put(enabled, evictor);
+      }
+      return connectionManager;
+    });
+  }
+
+  /**
+   * @return leased, pending and available connections of all pools
+   */
+  public PoolStats getPoolStats() {
+    int leased = 0;
+    int pending = 0;
+    int available = 0;
+    int max = 0;
+    for (PoolingHttpClientConnectionManager connectionManager : connectionManagers.values()) {
+      PoolStats stats = connectionManager.getTotalStats();
+      leased += stats.getLeased();
+      pending += stats.getPending();
+      available += stats.getAvailable();
+      max += stats.getMax();
+    }
+    return new PoolStats(leased, pending, available, max);
+  }
+
+  public HandshakeStats getHandshakeStats() {
+    return handshakeStats;
+  }
+
+  public CompressionStats getCompressionStats() {
+    return compressionStats;
+  }
+
+  private void logStats() {
+    LOGGER.info("http transport {}, {}, {}.", getPoolStats(), handshakeStats, compressionStats);
+  }
+
+  @Override
+  public void close() {
+    if (statsLogger != null) {
+      statsLogger.shutdownNow();
+    }
+    logStats();
+    evictors.values().forEach(IdleConnectionEvictor::shutdown);
+    connectionManagers.values().forEach(PoolingHttpClientConnectionManager::shutdown);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.eventbus.Subscribe;
+
+public class EventDispatcherTest {
+  public static class SlowEvent {
+    final int value;
+
+    SlowEvent(int value) {
+      this.value = value;
+    }
+  }
+
+  public static class Subscriber {
+    final CountDownLatch blocker = new CountDownLatch(1);
+
+    final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+
+    final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+    @Subscribe
+    public void onEvent(SlowEvent event) throws InterruptedException {
+      threads.add(Thread.currentThread().getName());
+      blocker.await(5, TimeUnit.SECONDS);
+      received.add(event.value);
+    }
+  }
+
+  @Test
+  public void testSyncByDefault() {
+    EventDispatcher dispatcher = new EventDispatcher();
+    DispatchingEventBus eventBus = new DispatchingEventBus(dispatcher);
+    Subscriber subscriber = new Subscriber();
+    subscriber.blocker.countDown();
+    eventBus.register(subscriber);
+    eventBus.post(new SlowEvent(1));
+    Assert.assertEquals(Collections.singletonList(1), subscriber.received);
+    Assert.assertEquals(Thread.currentThread().getName(), subscriber.threads.get(0));
+  }
+
+  @Test
+  public void testLatestPolicyCoalesce() throws Exception {
+    EventDispatchProperties properties = new EventDispatchProperties();
+    properties.setAsyncEnabled(true);
+    properties.getPolicies().put("SlowEvent", DispatchPolicy.LATEST);
+    EventDispatcher dispatcher = new EventDispatcher();
+    dispatcher.configure(properties);
+    DispatchingEventBus eventBus = new DispatchingEventBus(dispatcher);
+    Subscriber subscriber = new Subscriber();
+    eventBus.register(subscriber);
+
+    eventBus.post(new SlowEvent(1));
+    for (int i = 0; i < 50 && subscriber.threads.isEmpty(); i++) {
+      Thread.sleep(100);
+    }
+    // first event is being delivered, the following ones are coalesced
+    for (int i = 2; i <= 5; i++) {
+      eventBus.post(new SlowEvent(i));
+    }
+    Assert.assertEquals(1, dispatcher.getQueueDepths().get(SlowEvent.class.getName()).intValue());
+    Assert.assertEquals(3L, dispatcher.getDroppedEvents().get(SlowEvent.class.getName()).longValue());
+    subscriber.blocker.countDown();
+    for (int i = 0; i < 50 && subscriber.received.size() < 2; i++) {
+      Thread.sleep(100);
+    }
+    Assert.assertEquals(Arrays.asList(1, 5), subscriber.received);
+    Assert.assertTrue(subscriber.threads.get(0).startsWith("event-dispatcher-"));
+  }
+}
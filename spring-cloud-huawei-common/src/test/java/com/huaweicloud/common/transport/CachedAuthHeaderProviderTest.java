@@ -0,0 +1,66 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.transport;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.servicecomb.foundation.auth.AuthHeaderProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.huaweicloud.common.event.AuthHeaderChangedEvent;
+import com.huaweicloud.common.event.EventManager;
+
+public class CachedAuthHeaderProviderTest {
+  @Test
+  public void testRebuildWhenChangePosted() {
+    AtomicReference<Map<String, String>> token = new AtomicReference<>(
+        Collections.singletonMap("Authorization", "Bearer t1"));
+    Map<String, String> project = Collections.singletonMap("X-Service-Project", "default");
+    AuthHeaderProvider tokenProvider = new AuthHeaderProvider() {
+      @Override
+      public Map<String, String> authHeaders() {
+        return token.get();
+      }
+    };
+    AuthHeaderProvider projectProvider = new AuthHeaderProvider() {
+      @Override
+      public Map<String, String> authHeaders() {
+        return project;
+      }
+    };
+    CachedAuthHeaderProvider provider = new CachedAuthHeaderProvider(Arrays.asList(tokenProvider, projectProvider));
+
+    Map<String, String> headers = provider.loadAuthHeader(null);
+    Assert.assertEquals(2, headers.size());
+    Assert.assertSame(headers, provider.loadAuthHeader(null));
+
+    // providers are not asked again until they post a change
+    token.set(Collections.singletonMap("Authorization", "Bearer t2"));
+    Assert.assertSame(headers, provider.loadAuthHeader(null));
+
+    EventManager.post(new AuthHeaderChangedEvent(tokenProvider));
+    Map<String, String> changed = provider.loadAuthHeader(null);
+    Assert.assertNotSame(headers, changed);
+    Assert.assertEquals("Bearer t2", changed.get("Authorization"));
+    Assert.assertSame(changed, provider.loadAuthHeader(null));
+  }
+}
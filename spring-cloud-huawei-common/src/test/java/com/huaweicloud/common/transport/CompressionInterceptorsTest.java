@@ -0,0 +1,102 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.common.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressionInterceptorsTest {
+  private static String body() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      sb.append("{\"schemaId\":\"schema").append(i).append("\"}");
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testCompressRequest() throws Exception {
+    CompressionStats stats = new CompressionStats();
+    String body = body();
+    BasicHttpEntityEnclosingRequest request = new BasicHttpEntityEnclosingRequest("POST", "/");
+    request.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+    CompressionInterceptors.compressRequest(true, 1024, stats).process(request, new BasicHttpContext());
+
+    Assert.assertEquals("gzip", request.getEntity().getContentEncoding().getValue());
+    Assert.assertEquals(body, EntityUtils.toString(new GzipDecompressingEntity(request.getEntity())));
+    Assert.assertEquals(body.length(), stats.getRequestBytes());
+    Assert.assertTrue(stats.getRequestWireBytes() < stats.getRequestBytes());
+
+    request.setEntity(new StringEntity("{}", StandardCharsets.UTF_8));
+    CompressionInterceptors.compressRequest(true, 1024, stats).process(request, new BasicHttpContext());
+    Assert.assertNull(request.getEntity().getContentEncoding());
+  }
+
+  @Test
+  public void testRetryNotRecordedTwice() throws Exception {
+    CompressionStats stats = new CompressionStats();
+    String body = body();
+    BasicHttpEntityEnclosingRequest request = new BasicHttpEntityEnclosingRequest("POST", "/");
+    request.setEntity(new StringEntity(body, StandardCharsets.UTF_8));
+    BasicHttpContext context = new BasicHttpContext();
+    CompressionInterceptors.compressRequest(true, 1024, stats).process(request, context);
+    long wireBytes = stats.getRequestWireBytes();
+    CompressionInterceptors.compressRequest(true, 1024, stats).process(request, context);
+    Assert.assertEquals(body.length(), stats.getRequestBytes());
+    Assert.assertEquals(wireBytes, stats.getRequestWireBytes());
+
+    stats = new CompressionStats();
+    request.setEntity(new StringEntity("{}", StandardCharsets.UTF_8));
+    context = new BasicHttpContext();
+    CompressionInterceptors.compressRequest(true, 1024, stats).process(request, context);
+    CompressionInterceptors.compressRequest(true, 1024, stats).process(request, context);
+    Assert.assertEquals(2, stats.getRequestBytes());
+    Assert.assertEquals(2, stats.getRequestWireBytes());
+  }
+
+  @Test
+  public void testCountResponse() throws Exception {
+    CompressionStats stats = new CompressionStats();
+    String body = body();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+    BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+    response.setEntity(new ByteArrayEntity(out.toByteArray()));
+    CompressionInterceptors.countResponse(stats.responseWireBytesCounter()).process(response, new BasicHttpContext());
+    response.setEntity(new GzipDecompressingEntity(response.getEntity()));
+    CompressionInterceptors.countResponse(stats.responseBytesCounter()).process(response, new BasicHttpContext());
+
+    Assert.assertEquals(body, EntityUtils.toString(response.getEntity()));
+    Assert.assertEquals(body.length(), stats.getResponseBytes());
+    Assert.assertEquals(out.size(), stats.getResponseWireBytes());
+  }
+}
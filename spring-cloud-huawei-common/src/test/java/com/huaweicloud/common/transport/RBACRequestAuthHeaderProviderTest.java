@@ -39,6 +39,7 @@ public class RBACRequestAuthHeaderProviderTest {
     Mockito.when(serviceCombRBACProperties.getPassword()).thenReturn("test_password");
   }
 
+  @SuppressWarnings("deprecation")
   static class FirstTimeSuccessRBACRequestAuthHeaderProvider extends RBACRequestAuthHeaderProvider {
     public FirstTimeSuccessRBACRequestAuthHeaderProvider(DiscoveryBootstrapProperties discoveryProperties,
         ServiceCombSSLProperties serviceCombSSLProperties,
@@ -54,6 +55,7 @@ public class RBACRequestAuthHeaderProviderTest {
     }
   }
 
+  @SuppressWarnings("deprecation")
   static class SecondTimeSuccessRBACRequestAuthHeaderProvider extends RBACRequestAuthHeaderProvider {
     private boolean first = true;
 
@@ -75,6 +77,7 @@ public class RBACRequestAuthHeaderProviderTest {
     }
   }
 
+  @SuppressWarnings("deprecation")
   static class SecondTimeFirstNullSuccessRBACRequestAuthHeaderProvider extends RBACRequestAuthHeaderProvider {
     private int count = 0;
 
@@ -17,8 +17,8 @@
 
 package com.huaweicloud.config;
 
+import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -29,12 +29,12 @@ import org.apache.servicecomb.config.center.client.ConfigCenterManager;
 import org.apache.servicecomb.config.center.client.model.QueryConfigurationsRequest;
 import org.apache.servicecomb.config.center.client.model.QueryConfigurationsResponse;
 import org.apache.servicecomb.config.common.ConfigConverter;
+import org.apache.servicecomb.config.common.ConfigurationChangedEvent;
 import org.apache.servicecomb.config.kie.client.KieClient;
 import org.apache.servicecomb.config.kie.client.KieConfigManager;
 import org.apache.servicecomb.config.kie.client.model.KieAddressManager;
 import org.apache.servicecomb.config.kie.client.model.KieConfiguration;
 import org.apache.servicecomb.foundation.auth.AuthHeaderProvider;
-import org.apache.servicecomb.http.client.auth.RequestAuthHeaderProvider;
 import org.apache.servicecomb.http.client.common.HttpTransport;
 import org.apache.servicecomb.http.client.common.HttpTransportFactory;
 import org.slf4j.Logger;
@@ -42,9 +42,9 @@ import org.slf4j.LoggerFactory;
 import org.apache.commons.lang3.StringUtils;
 
 import com.huaweicloud.common.event.EventManager;
+import com.huaweicloud.common.transport.CachedAuthHeaderProvider;
 import com.huaweicloud.common.transport.ServiceCombAkSkProperties;
-import com.huaweicloud.common.transport.ServiceCombSSLProperties;
-import com.huaweicloud.common.transport.TransportUtils;
+import com.huaweicloud.common.transport.SharedHttpTransportFactory;
 import com.huaweicloud.common.util.URLUtil;
 
 public class ConfigService {
@@ -54,6 +54,15 @@ public class ConfigService {
 
   private ConfigConverter configConverter;
 
+  private ConfigSnapshot configSnapshot;
+
+  private boolean bootFromSnapshot = false;
+
+  private boolean applicationReady = false;
+
+  // reconciliation done before application is ready, RefreshEventListener ignores refresh before ready
+  private Runnable pendingReconcile;
+
   private static final ConfigService INSTANCE = new ConfigService();
 
   private ConfigService() {
@@ -69,7 +78,7 @@ public class ConfigService {
   }
 
   public void init(ServiceCombConfigProperties configProperties,
-      ServiceCombAkSkProperties serviceCombAkSkProperties, ServiceCombSSLProperties serviceCombSSLProperties,
+      ServiceCombAkSkProperties serviceCombAkSkProperties, SharedHttpTransportFactory httpTransportFactory,
       List<AuthHeaderProvider> authHeaderProviders) {
 
     if (URLUtil.getEnvConfigUrl().isEmpty() && StringUtils.isEmpty(configProperties.getServerAddr())) {
@@ -85,12 +94,13 @@ public class ConfigService {
     initialized = true;
 
     initConfigConverter(configProperties);
+    initConfigSnapshot(configProperties);
 
     if ("kie".equalsIgnoreCase(configProperties.getServerType())) {
-      initKieConfig(configProperties, serviceCombAkSkProperties, serviceCombSSLProperties,
+      initKieConfig(configProperties, serviceCombAkSkProperties, httpTransportFactory,
           authHeaderProviders);
     } else {
-      initServiceCenterConfig(configProperties, serviceCombAkSkProperties, serviceCombSSLProperties,
+      initServiceCenterConfig(configProperties, serviceCombAkSkProperties, httpTransportFactory,
           authHeaderProviders);
     }
   }
@@ -102,6 +112,79 @@ public class ConfigService {
     configConverter = new ConfigConverter(Arrays.asList(configProperties.getFileSource().split(",")));
   }
 
+  private void initConfigSnapshot(ServiceCombConfigProperties configProperties) {
+    ServiceCombConfigProperties.Snapshot snapshotProperties = configProperties.getSnapshot();
+    if (!snapshotProperties.isEnabled()) {
+      return;
+    }
+    if (StringUtils.isEmpty(snapshotProperties.getSecret())) {
+      LOGGER.error("config snapshot is enabled but spring.cloud.servicecomb.config.snapshot.secret is not"
+          + " configured, snapshot is not used.");
+      return;
+    }
+    String identity = configProperties.getAppName() + "-" + configProperties.getServiceName();
+    configSnapshot = new ConfigSnapshot(StringUtils.isEmpty(snapshotProperties.getPath())
+        ? Paths.get(System.getProperty("java.io.tmpdir"), "servicecomb", "config-snapshot", identity + ".snapshot")
+        : Paths.get(snapshotProperties.getPath()), snapshotProperties.getSecret(), configConverter);
+    EventManager.register(configSnapshot);
+    Map<String, Object> data = configSnapshot.load();
+    if (data != null) {
+      configConverter.updateData(data);
+      bootFromSnapshot = true;
+    }
+  }
+
+  /**
+   * boot from snapshot, pull from config center in background and notify real changes only. Changes and
+   * config manager are deferred until application is ready, so that they are not lost before ConfigWatch is
+   * registered and refresh is enabled.
+   */
+  private void reconcileInBackground(Runnable firstPull, Runnable startManager) {
+    Thread thread = new Thread(() -> {
+      Map<String, Object> before = configConverter.getCurrentData();
+      try {
+        firstPull.run();
+      } catch (RuntimeException e) {
+        LOGGER.warn("pull configurations failed, keep using snapshot. {}", e.getMessage());
+      }
+      ConfigurationChangedEvent event = ConfigurationChangedEvent
+          .createIncremental(configConverter.getCurrentData(), before);
+      runWhenReady(() -> {
+        if (event.isChanged()) {
+          EventManager.post(event);
+        }
+        startManager.run();
+      });
+    }, "config-snapshot-reconcile");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void runWhenReady(Runnable runnable) {
+    synchronized (this) {
+      if (!applicationReady) {
+        pendingReconcile = runnable;
+        return;
+      }
+    }
+    runnable.run();
+  }
+
+  /**
+   * called when application is ready
+   */
+  public void onApplicationReady() {
+    Runnable runnable;
+    synchronized (this) {
+      applicationReady = true;
+      runnable = pendingReconcile;
+      pendingReconcile = null;
+    }
+    if (runnable != null) {
+      runnable.run();
+    }
+  }
+
   private AddressManager configCenterAddressManager(ServiceCombConfigProperties configProperties,
       ServiceCombAkSkProperties serviceCombAkSkProperties) {
     List<String> addresses = URLUtil.getEnvConfigUrl();
@@ -114,20 +197,10 @@ public class ConfigService {
   }
 
   private HttpTransport createHttpTransport(boolean sslEnabled,
-      ServiceCombSSLProperties serviceCombSSLProperties,
+      SharedHttpTransportFactory httpTransportFactory,
       List<AuthHeaderProvider> authHeaderProviders, RequestConfig requestConfig) {
-    return HttpTransportFactory
-        .createHttpTransport(
-            TransportUtils.createSSLProperties(sslEnabled, serviceCombSSLProperties),
-            getRequestAuthHeaderProvider(authHeaderProviders), requestConfig);
-  }
-
-  private static RequestAuthHeaderProvider getRequestAuthHeaderProvider(List<AuthHeaderProvider> authHeaderProviders) {
-    return signRequest -> {
-      Map<String, String> headers = new HashMap<>();
-      authHeaderProviders.forEach(provider -> headers.putAll(provider.authHeaders()));
-      return headers;
-    };
+    return httpTransportFactory
+        .createHttpTransport(sslEnabled, new CachedAuthHeaderProvider(authHeaderProviders), requestConfig);
   }
 
   private QueryConfigurationsRequest createQueryConfigurationsRequest(ServiceCombConfigProperties configProperties) {
@@ -142,26 +215,43 @@ public class ConfigService {
   }
 
   private void initServiceCenterConfig(ServiceCombConfigProperties configProperties,
-      ServiceCombAkSkProperties serviceCombAkSkProperties, ServiceCombSSLProperties serviceCombSSLProperties,
+      ServiceCombAkSkProperties serviceCombAkSkProperties, SharedHttpTransportFactory httpTransportFactory,
       List<AuthHeaderProvider> authHeaderProviders) {
     QueryConfigurationsRequest queryConfigurationsRequest;
 
     AddressManager addressManager = configCenterAddressManager(configProperties, serviceCombAkSkProperties);
-    HttpTransport httpTransport = createHttpTransport(addressManager.sslEnabled(), serviceCombSSLProperties,
+    HttpTransport httpTransport = createHttpTransport(addressManager.sslEnabled(), httpTransportFactory,
         authHeaderProviders, HttpTransportFactory.defaultRequestConfig().build());
     ConfigCenterClient configCenterClient = new ConfigCenterClient(addressManager, httpTransport);
 
     queryConfigurationsRequest = createQueryConfigurationsRequest(configProperties);
+    ConfigCenterManager configCenterManager = new ConfigCenterManager(configCenterClient, EventManager.getEventBus(),
+        configConverter);
+    configCenterManager.setQueryConfigurationsRequest(queryConfigurationsRequest);
+    if (bootFromSnapshot) {
+      // data of snapshot revision is already loaded
+      queryConfigurationsRequest.setRevision(StringUtils.isEmpty(configSnapshot.getRevision())
+          ? null : configSnapshot.getRevision());
+      QueryConfigurationsRequest request = queryConfigurationsRequest;
+      reconcileInBackground(() -> queryConfigurations(configCenterClient, request),
+          configCenterManager::startConfigCenterManager);
+      return;
+    }
+    queryConfigurations(configCenterClient, queryConfigurationsRequest);
+    configCenterManager.startConfigCenterManager();
+  }
+
+  private void queryConfigurations(ConfigCenterClient configCenterClient,
+      QueryConfigurationsRequest queryConfigurationsRequest) {
     QueryConfigurationsResponse response = configCenterClient
         .queryConfigurations(queryConfigurationsRequest);
     if (response.isChanged()) {
       configConverter.updateData(response.getConfigurations());
     }
     queryConfigurationsRequest.setRevision(response.getRevision());
-    ConfigCenterManager configCenterManager = new ConfigCenterManager(configCenterClient, EventManager.getEventBus(),
-        configConverter);
-    configCenterManager.setQueryConfigurationsRequest(queryConfigurationsRequest);
-    configCenterManager.startConfigCenterManager();
+    if (configSnapshot != null) {
+      configSnapshot.update(response.getRevision());
+    }
   }
 
   private KieAddressManager createKieAddressManager(List<String> addresses) {
@@ -195,7 +285,7 @@ public class ConfigService {
   }
 
   private void initKieConfig(ServiceCombConfigProperties configProperties,
-      ServiceCombAkSkProperties serviceCombAkSkProperties, ServiceCombSSLProperties serviceCombSSLProperties,
+      ServiceCombAkSkProperties serviceCombAkSkProperties, SharedHttpTransportFactory httpTransportFactory,
       List<AuthHeaderProvider> authHeaderProviders) {
     KieAddressManager kieAddressManager = configKieAddressManager(configProperties);
 
@@ -205,13 +295,33 @@ public class ConfigService {
       requestBuilder.setConnectionRequestTimeout(configProperties.getKie().getPollingWaitTimeInSeconds() * 2 * 1000);
       requestBuilder.setSocketTimeout(configProperties.getKie().getPollingWaitTimeInSeconds() * 2 * 1000);
     }
-    HttpTransport httpTransport = createHttpTransport(kieAddressManager.sslEnabled(), serviceCombSSLProperties,
+    HttpTransport httpTransport = createHttpTransport(kieAddressManager.sslEnabled(), httpTransportFactory,
         authHeaderProviders, requestBuilder.build());
     KieConfiguration kieConfiguration = createKieConfiguration(configProperties, serviceCombAkSkProperties);
     KieClient kieClient = new KieClient(kieAddressManager, httpTransport, kieConfiguration);
-    KieConfigManager kieConfigManager = new KieConfigManager(kieClient, EventManager.getEventBus(), kieConfiguration,
-        configConverter);
-    kieConfigManager.firstPull();
+    ParallelKieFirstPull parallelFirstPull = configProperties.getKie().isParallelFirstPull()
+        ? new ParallelKieFirstPull(kieClient, () -> new KieClient(kieAddressManager, httpTransport, kieConfiguration))
+        : null;
+    KieConfigManager kieConfigManager = new KieConfigManager(parallelFirstPull == null ? kieClient : parallelFirstPull,
+        EventManager.getEventBus(), kieConfiguration, configConverter);
+    if (bootFromSnapshot) {
+      reconcileInBackground(() -> firstPull(kieConfigManager, parallelFirstPull, kieConfiguration),
+          kieConfigManager::startConfigKieManager);
+      return;
+    }
+    firstPull(kieConfigManager, parallelFirstPull, kieConfiguration);
     kieConfigManager.startConfigKieManager();
   }
+
+  private void firstPull(KieConfigManager kieConfigManager, ParallelKieFirstPull parallelFirstPull,
+      KieConfiguration kieConfiguration) {
+    if (parallelFirstPull != null) {
+      parallelFirstPull.prefetch(kieConfiguration);
+    }
+    kieConfigManager.firstPull();
+    if (configSnapshot != null) {
+      // kie revision is kept by KieConfigManager
+      configSnapshot.update(null);
+    }
+  }
 }
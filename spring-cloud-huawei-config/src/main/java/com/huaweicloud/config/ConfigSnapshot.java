@@ -0,0 +1,322 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.servicecomb.config.common.ConfigConverter;
+import org.apache.servicecomb.config.common.ConfigurationChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.Subscribe;
+import com.google.common.hash.Hashing;
+
+/**
+ * Encrypted local copy of last known configurations, so that application can boot without waiting for or
+ * reaching config center.
+ *
+ * The snapshot is rewritten after each configuration change. It is encrypted by AES/GCM with a key derived
+ * from the configured secret, and written to a temporary file and then moved, so a crash never leaves a half
+ * written snapshot. Snapshot and its directory are only accessible by the owner where POSIX permissions are
+ * supported. Values keep their types, so unchanged values equal the values pulled after boot. Revision of
+ * config center is kept across later changes, it may be older than the data but never newer, kie revision is
+ * always empty.
+ */
+public class ConfigSnapshot {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConfigSnapshot.class);
+
+  private static final int MAGIC = 0x53434346;
+
+  private static final int FORMAT_VERSION = 2;
+
+  // type tags of values, values of other types are kept as strings
+  private static final byte TYPE_NULL = 0;
+
+  private static final byte TYPE_STRING = 1;
+
+  private static final byte TYPE_INTEGER = 2;
+
+  private static final byte TYPE_LONG = 3;
+
+  private static final byte TYPE_DOUBLE = 4;
+
+  private static final byte TYPE_FLOAT = 5;
+
+  private static final byte TYPE_BOOLEAN = 6;
+
+  private static final byte TYPE_BIG_INTEGER = 7;
+
+  private static final byte TYPE_BIG_DECIMAL = 8;
+
+  private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+  private static final int IV_LENGTH = 12;
+
+  private static final int TAG_BITS = 128;
+
+  private static final Set<PosixFilePermission> OWNER_DIR = PosixFilePermissions.fromString("rwx------");
+
+  private static final Set<PosixFilePermission> OWNER_FILE = PosixFilePermissions.fromString("rw-------");
+
+  private final Path file;
+
+  private final SecretKeySpec key;
+
+  private final ConfigConverter configConverter;
+
+  private final SecureRandom random = new SecureRandom();
+
+  private final AtomicBoolean writePending = new AtomicBoolean(false);
+
+  private final ExecutorService writer = Executors.newSingleThreadExecutor(t -> {
+    Thread thread = new Thread(t, "config-snapshot-writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private volatile String revision = "";
+
+  public ConfigSnapshot(Path file, String secret, ConfigConverter configConverter) {
+    this.file = file;
+    this.key = new SecretKeySpec(Hashing.sha256().hashString(secret, StandardCharsets.UTF_8).asBytes(), "AES");
+    this.configConverter = configConverter;
+  }
+
+  public String getRevision() {
+    return revision;
+  }
+
+  /**
+   * @return configurations in snapshot, null if there is no valid snapshot
+   */
+  public Map<String, Object> load() {
+    if (!Files.exists(file)) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(decrypt(Files.readAllBytes(file))))) {
+      long time = in.readLong();
+      String snapshotRevision = readString(in);
+      int count = in.readInt();
+      Map<String, Object> data = new HashMap<>(count * 4 / 3 + 1);
+      for (int i = 0; i < count; i++) {
+        data.put(readString(in), readValue(in));
+      }
+      revision = snapshotRevision;
+      LOGGER.info("loaded {} configurations from snapshot {}, age {} ms.", count, file,
+          System.currentTimeMillis() - time);
+      return data;
+    } catch (IOException | GeneralSecurityException | RuntimeException e) {
+      LOGGER.warn("read config snapshot {} failed, {}", file, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * write current configurations of the converter
+   *
+   * @param revision revision of current configurations, null if unknown
+   */
+  public void update(String revision) {
+    this.revision = revision == null ? "" : revision;
+    if (writePending.compareAndSet(false, true)) {
+      writer.execute(() -> {
+        writePending.set(false);
+        write();
+      });
+    }
+  }
+
+  @Subscribe
+  public void onConfigurationChangedEvent(ConfigurationChangedEvent event) {
+    // keep the revision, an older revision only makes config center return all configurations
+    update(revision);
+  }
+
+  private void write() {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      if (file.getParent() != null && !Files.exists(file.getParent())) {
+        Files.createDirectories(file.getParent());
+        restrict(file.getParent(), OWNER_DIR);
+      }
+      Map<String, Object> data = configConverter.getCurrentData();
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+        out.writeLong(System.currentTimeMillis());
+        writeString(out, revision);
+        out.writeInt(data.size());
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+          writeString(out, entry.getKey());
+          writeValue(out, entry.getValue());
+        }
+      }
+      Files.deleteIfExists(temp);
+      Files.createFile(temp);
+      restrict(temp, OWNER_FILE);
+      Files.write(temp, encrypt(bytes.toByteArray()));
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException | GeneralSecurityException | RuntimeException e) {
+      LOGGER.warn("write config snapshot {} failed, {}", file, e.getMessage());
+    }
+  }
+
+  private static void restrict(Path path, Set<PosixFilePermission> permissions) throws IOException {
+    try {
+      Files.setPosixFilePermissions(path, permissions);
+    } catch (UnsupportedOperationException e) {
+      // not a POSIX file system
+    }
+  }
+
+  private byte[] encrypt(byte[] plain) throws IOException, GeneralSecurityException {
+    byte[] iv = new byte[IV_LENGTH];
+    random.nextBytes(iv);
+    Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+    cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.write(iv);
+      out.write(cipher.doFinal(plain));
+    }
+    return bytes.toByteArray();
+  }
+
+  private byte[] decrypt(byte[] content) throws IOException, GeneralSecurityException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        throw new IOException("unknown format");
+      }
+      byte[] iv = new byte[IV_LENGTH];
+      in.readFully(iv);
+      Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+      cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+      int offset = 8 + IV_LENGTH;
+      return cipher.doFinal(content, offset, content.length - offset);
+    }
+  }
+
+  // values keep their types, so that loaded values equal to values pulled from config center
+  private static void writeValue(DataOutputStream out, Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(TYPE_NULL);
+    } else if (value instanceof Integer) {
+      out.writeByte(TYPE_INTEGER);
+      out.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte(TYPE_LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Double) {
+      out.writeByte(TYPE_DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (value instanceof Float) {
+      out.writeByte(TYPE_FLOAT);
+      out.writeFloat((Float) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte(TYPE_BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof BigInteger) {
+      out.writeByte(TYPE_BIG_INTEGER);
+      writeString(out, value.toString());
+    } else if (value instanceof BigDecimal) {
+      out.writeByte(TYPE_BIG_DECIMAL);
+      writeString(out, value.toString());
+    } else {
+      out.writeByte(TYPE_STRING);
+      writeString(out, value.toString());
+    }
+  }
+
+  private static Object readValue(DataInputStream in) throws IOException {
+    byte type = in.readByte();
+    switch (type) {
+      case TYPE_NULL:
+        return null;
+      case TYPE_STRING:
+        return readString(in);
+      case TYPE_INTEGER:
+        return in.readInt();
+      case TYPE_LONG:
+        return in.readLong();
+      case TYPE_DOUBLE:
+        return in.readDouble();
+      case TYPE_FLOAT:
+        return in.readFloat();
+      case TYPE_BOOLEAN:
+        return in.readBoolean();
+      case TYPE_BIG_INTEGER:
+        return new BigInteger(readString(in));
+      case TYPE_BIG_DECIMAL:
+        return new BigDecimal(readString(in));
+      default:
+        throw new IOException("unknown value type " + type);
+    }
+  }
+
+  // length prefixed, values may exceed the 64K limit of writeUTF
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
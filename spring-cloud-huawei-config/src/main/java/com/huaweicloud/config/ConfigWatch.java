@@ -19,25 +19,70 @@ package com.huaweicloud.config;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.servicecomb.config.common.ConfigurationChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cloud.endpoint.event.RefreshEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationListener;
 
 import com.google.common.eventbus.Subscribe;
 import com.huaweicloud.common.event.ConfigRefreshEvent;
 import com.huaweicloud.common.event.EventManager;
 
-public class ConfigWatch implements ApplicationEventPublisherAware {
+/**
+ * Publish config changes to spring. Changes arriving within the debounce window are merged and refreshed
+ * once, the refresh is delayed at most {@link #MAX_DEBOUNCE_TIMES} windows after the first change.
+ */
+public class ConfigWatch implements ApplicationEventPublisherAware, ApplicationListener<ApplicationReadyEvent> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ConfigWatch.class);
 
+  private static final int MAX_DEBOUNCE_TIMES = 5;
+
   private ApplicationEventPublisher applicationEventPublisher;
 
+  private final TargetedConfigRefresher targetedConfigRefresher;
+
+  private final long debounce;
+
+  private ScheduledExecutorService debounceExecutor;
+
+  private final Set<String> pendingKeys = new HashSet<>();
+
+  private ScheduledFuture<?> pendingRefresh;
+
+  private long firstPendingTime;
+
   public ConfigWatch() {
+    this(null);
+  }
+
+  public ConfigWatch(TargetedConfigRefresher targetedConfigRefresher) {
+    this(targetedConfigRefresher, 0);
+  }
+
+  /**
+   * @param targetedConfigRefresher null to refresh the whole context by RefreshEvent
+   * @param debounce milliseconds to wait for more changes, 0 to refresh on each change
+   */
+  public ConfigWatch(TargetedConfigRefresher targetedConfigRefresher, long debounce) {
+    this.targetedConfigRefresher = targetedConfigRefresher;
+    this.debounce = debounce;
+    if (debounce > 0) {
+      debounceExecutor = Executors.newSingleThreadScheduledExecutor(t -> {
+        Thread thread = new Thread(t, "config-refresh-debounce");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
     EventManager.register(this);
   }
 
@@ -46,6 +91,12 @@ public class ConfigWatch implements ApplicationEventPublisherAware {
     this.applicationEventPublisher = applicationEventPublisher;
   }
 
+  // changes reconciled from config center after booting from snapshot are published from now on
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    ConfigService.getInstance().onApplicationReady();
+  }
+
   @Subscribe
   public void onConfigurationChangedEvent(ConfigurationChangedEvent event) {
     LOGGER.info("receive new configurations, added=[{}], updated=[{}], deleted=[{}]",
@@ -57,8 +108,47 @@ public class ConfigWatch implements ApplicationEventPublisherAware {
     updatedKey.addAll(event.getAdded().keySet());
     updatedKey.addAll(event.getUpdated().keySet());
     updatedKey.addAll(event.getDeleted().keySet());
+    if (debounceExecutor == null) {
+      refresh(updatedKey);
+      return;
+    }
+    debounce(updatedKey);
+  }
+
+  private synchronized void debounce(Set<String> updatedKey) {
+    long now = System.currentTimeMillis();
+    if (pendingKeys.isEmpty()) {
+      firstPendingTime = now;
+    }
+    pendingKeys.addAll(updatedKey);
+    if (pendingRefresh != null) {
+      pendingRefresh.cancel(false);
+    }
+    long delay = Math.min(debounce, firstPendingTime + debounce * MAX_DEBOUNCE_TIMES - now);
+    pendingRefresh = debounceExecutor.schedule(this::refreshPending, Math.max(0, delay), TimeUnit.MILLISECONDS);
+  }
+
+  private void refreshPending() {
+    Set<String> keys;
+    synchronized (this) {
+      if (pendingKeys.isEmpty()) {
+        return;
+      }
+      keys = new HashSet<>(pendingKeys);
+      pendingKeys.clear();
+      pendingRefresh = null;
+    }
+    LOGGER.info("refresh {} merged configuration changes.", keys.size());
+    refresh(keys);
+  }
+
+  private void refresh(Set<String> updatedKey) {
     ConfigRefreshEvent configRefreshEvent = new ConfigRefreshEvent(this, updatedKey);
     applicationEventPublisher.publishEvent(configRefreshEvent);
+    if (targetedConfigRefresher != null) {
+      targetedConfigRefresher.refresh(updatedKey);
+      return;
+    }
     applicationEventPublisher.publishEvent(new RefreshEvent(this, configRefreshEvent, "Config refreshed"));
   }
 }
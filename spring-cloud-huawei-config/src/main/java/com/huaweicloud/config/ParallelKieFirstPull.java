@@ -0,0 +1,129 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.servicecomb.config.kie.client.KieConfigOperation;
+import org.apache.servicecomb.config.kie.client.model.ConfigurationsRequest;
+import org.apache.servicecomb.config.kie.client.model.ConfigurationsRequestFactory;
+import org.apache.servicecomb.config.kie.client.model.ConfigurationsResponse;
+import org.apache.servicecomb.config.kie.client.model.KieConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Query all enabled kie layers (app, service, custom) concurrently before KieConfigManager.firstPull.
+ *
+ * KieConfigManager still pulls layers one by one in its own order and merges them with the same precedence,
+ * but takes the prefetched responses (or failures) instead of querying again. Each layer uses its own
+ * client, because KieClient keeps the last revision in a field. Later queries go to the delegate.
+ */
+public class ParallelKieFirstPull implements KieConfigOperation {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelKieFirstPull.class);
+
+  private final KieConfigOperation delegate;
+
+  private final Supplier<KieConfigOperation> layerClients;
+
+  private final Map<String, ConfigurationsResponse> responses = new ConcurrentHashMap<>();
+
+  private final Map<String, RuntimeException> failures = new ConcurrentHashMap<>();
+
+  private final Map<String, Long> layerLatency = Collections.synchronizedMap(new LinkedHashMap<>());
+
+  /**
+   * @param layerClients creates a client for querying one layer
+   */
+  public ParallelKieFirstPull(KieConfigOperation delegate, Supplier<KieConfigOperation> layerClients) {
+    this.delegate = delegate;
+    this.layerClients = layerClients;
+  }
+
+  public void prefetch(KieConfiguration kieConfiguration) {
+    List<ConfigurationsRequest> requests = ConfigurationsRequestFactory.buildConfigurationRequests(kieConfiguration);
+    if (requests.size() < 2) {
+      return;
+    }
+    long begin = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(requests.size(), t -> {
+      Thread thread = new Thread(t, "kie-first-pull");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      List<Future<?>> futures = new ArrayList<>(requests.size());
+      for (ConfigurationsRequest request : requests) {
+        futures.add(executor.submit(() -> query(request)));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      LOGGER.warn("prefetch kie configurations failed, {}", e.getMessage());
+    } finally {
+      executor.shutdownNow();
+    }
+    LOGGER.info("prefetch {} kie layers in {} ms, latency of each layer {}.", requests.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin), layerLatency);
+  }
+
+  private void query(ConfigurationsRequest request) {
+    long begin = System.nanoTime();
+    try {
+      request.setRevision(ConfigurationsRequest.INITIAL_REVISION);
+      responses.put(request.getLabelsQuery(), layerClients.get().queryConfigurations(request));
+    } catch (RuntimeException e) {
+      failures.put(request.getLabelsQuery(), e);
+    } finally {
+      layerLatency.put(request.getLabelsQuery(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+    }
+  }
+
+  /**
+   * @return milliseconds of first pull of each layer, keyed by labels query
+   */
+  public Map<String, Long> getLayerLatency() {
+    synchronized (layerLatency) {
+      return new LinkedHashMap<>(layerLatency);
+    }
+  }
+
+  @Override
+  public ConfigurationsResponse queryConfigurations(ConfigurationsRequest request) {
+    RuntimeException failure = failures.remove(request.getLabelsQuery());
+    if (failure != null) {
+      throw failure;
+    }
+    ConfigurationsResponse response = responses.remove(request.getLabelsQuery());
+    return response != null ? response : delegate.queryConfigurations(request);
+  }
+}
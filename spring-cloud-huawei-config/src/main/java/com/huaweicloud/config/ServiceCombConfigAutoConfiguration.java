@@ -17,15 +17,35 @@
 
 package com.huaweicloud.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.autoconfigure.ConfigurationPropertiesRebinderAutoConfiguration;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesRebinder;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 @ConditionalOnProperty(name = "spring.cloud.servicecomb.config.enabled", matchIfMissing = true)
+@AutoConfigureAfter({RefreshAutoConfiguration.class, ConfigurationPropertiesRebinderAutoConfiguration.class})
 public class ServiceCombConfigAutoConfiguration {
   @Bean
-  public ConfigWatch configWatch() {
-    return new ConfigWatch();
+  public ConfigWatch configWatch(ObjectProvider<TargetedConfigRefresher> targetedConfigRefresher,
+      ObjectProvider<ServiceCombConfigProperties> configProperties) {
+    ServiceCombConfigProperties properties = configProperties.getIfAvailable();
+    return new ConfigWatch(targetedConfigRefresher.getIfAvailable(),
+        properties == null ? 0 : properties.getRefreshDebounce());
+  }
+
+  // refresh only beans affected by changed keys instead of the whole context, off by default
+  @Bean
+  @ConditionalOnBean(ConfigurationPropertiesRebinder.class)
+  @ConditionalOnProperty(name = "spring.cloud.servicecomb.config.targetedRefresh", havingValue = "true")
+  public TargetedConfigRefresher targetedConfigRefresher(ConfigurationPropertiesRebinder rebinder,
+      ObjectProvider<RefreshScope> refreshScope) {
+    return new TargetedConfigRefresher(rebinder, refreshScope.getIfAvailable());
   }
 }
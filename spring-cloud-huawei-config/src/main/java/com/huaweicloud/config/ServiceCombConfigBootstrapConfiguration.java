@@ -26,7 +26,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.huaweicloud.common.transport.ServiceCombAkSkProperties;
-import com.huaweicloud.common.transport.ServiceCombSSLProperties;
+import com.huaweicloud.common.transport.SharedHttpTransportFactory;
 
 /**
  * bootstrap 配置信息。 由于使用 ContextRefresher 刷新配置， 会重新加载所有 bootstrap 的 bean， 因此配置中心的
@@ -38,10 +38,10 @@ import com.huaweicloud.common.transport.ServiceCombSSLProperties;
 public class ServiceCombConfigBootstrapConfiguration {
   @Bean
   public ServiceCombPropertySourceLocator serviceCombPropertySourceLocator(ServiceCombConfigProperties configProperties,
-      ServiceCombAkSkProperties serviceCombAkSkProperties, ServiceCombSSLProperties serviceCombSSLProperties,
+      ServiceCombAkSkProperties serviceCombAkSkProperties, SharedHttpTransportFactory sharedHttpTransportFactory,
       List<AuthHeaderProvider> authHeaderProviders) {
     ConfigService.getInstance()
-        .init(configProperties, serviceCombAkSkProperties, serviceCombSSLProperties, authHeaderProviders);
+        .init(configProperties, serviceCombAkSkProperties, sharedHttpTransportFactory, authHeaderProviders);
     return new ServiceCombPropertySourceLocator(ConfigService.getInstance().getConfigConverter());
   }
 }
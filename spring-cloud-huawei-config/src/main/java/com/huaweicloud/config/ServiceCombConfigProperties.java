@@ -53,10 +53,15 @@ public class ServiceCombConfigProperties {
   @Value("${spring.cloud.servicecomb.config.fileSource:}")
   private String fileSource;
 
+  // milliseconds to merge changes arriving in quick succession into one refresh, 0 to refresh on each change
+  private long refreshDebounce = 0;
+
   private Watch watch = new Watch();
 
   private Kie kie = new Kie();
 
+  private Snapshot snapshot = new Snapshot();
+
   public String getFileSource() {
     return fileSource;
   }
@@ -105,6 +110,14 @@ public class ServiceCombConfigProperties {
     return this.kie;
   }
 
+  public Snapshot getSnapshot() {
+    return snapshot;
+  }
+
+  public void setSnapshot(Snapshot snapshot) {
+    this.snapshot = snapshot;
+  }
+
   public String getServiceName() {
     if (StringUtils.isEmpty(serviceName)) {
       throw new ServiceCombRuntimeException("please use bootstrap.yml for config properties.");
@@ -156,6 +169,14 @@ public class ServiceCombConfigProperties {
     this.firstPullRequired = firstPullRequired;
   }
 
+  public long getRefreshDebounce() {
+    return refreshDebounce;
+  }
+
+  public void setRefreshDebounce(long refreshDebounce) {
+    this.refreshDebounce = refreshDebounce;
+  }
+
   public static class Watch {
     private boolean enable;
 
@@ -188,6 +209,41 @@ public class ServiceCombConfigProperties {
     }
   }
 
+  public static class Snapshot {
+    // boot from local snapshot of last known configurations, see ConfigSnapshot
+    private boolean enabled = false;
+
+    // default ${java.io.tmpdir}/servicecomb/config-snapshot/{appName}-{serviceName}.snapshot
+    private String path;
+
+    // key to encrypt snapshot file, required, snapshot is not used if not configured
+    private String secret;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public void setPath(String path) {
+      this.path = path;
+    }
+
+    public String getSecret() {
+      return secret;
+    }
+
+    public void setSecret(String secret) {
+      this.secret = secret;
+    }
+  }
+
   public static class Kie {
     private boolean enableAppConfig = true;
 
@@ -203,6 +259,17 @@ public class ServiceCombConfigProperties {
 
     private int pollingWaitTimeInSeconds = 10;
 
+    // query enabled layers concurrently in first pull, see ParallelKieFirstPull, off by default
+    private boolean parallelFirstPull = false;
+
+    public boolean isParallelFirstPull() {
+      return parallelFirstPull;
+    }
+
+    public void setParallelFirstPull(boolean parallelFirstPull) {
+      this.parallelFirstPull = parallelFirstPull;
+    }
+
     public int getPollingWaitTimeInSeconds() {
       return pollingWaitTimeInSeconds;
     }
@@ -17,7 +17,8 @@
 
 package com.huaweicloud.config;
 
-import java.util.Set;
+import java.util.Collections;
+import java.util.Map;
 
 import org.apache.servicecomb.config.common.ConfigConverter;
 import org.springframework.core.env.EnumerablePropertySource;
@@ -27,19 +28,68 @@ public class ServiceCombConfigPropertySource extends EnumerablePropertySource<Co
 
   private final ConfigConverter configConverter;
 
+  private volatile Snapshot snapshot = new Snapshot(0, Collections.emptyMap());
+
   public ServiceCombConfigPropertySource(ConfigConverter configConverter) {
     super(NAME, configConverter);
     this.configConverter = configConverter;
   }
 
+  /**
+   * Immutable view of one version of config data. ConfigConverter replaces its data map on each update (config
+   * clients pull into a new map each time), so a new snapshot is only built when the map instance changes,
+   * reads in between share the same arrays.
+   */
+  public static final class Snapshot {
+    private final long revision;
+
+    private final Map<String, Object> data;
+
+    private final String[] names;
+
+    Snapshot(long revision, Map<String, Object> data) {
+      this.revision = revision;
+      this.data = data;
+      this.names = data.keySet().toArray(new String[0]);
+    }
+
+    public long getRevision() {
+      return revision;
+    }
+
+    public Map<String, Object> getData() {
+      return Collections.unmodifiableMap(data);
+    }
+
+    public String[] getPropertyNames() {
+      return names.clone();
+    }
+  }
+
+  public Snapshot getSnapshot() {
+    Snapshot current = snapshot;
+    Map<String, Object> data = configConverter.getCurrentData();
+    if (current.data == data) {
+      return current;
+    }
+    synchronized (this) {
+      if (snapshot.data != data) {
+        snapshot = new Snapshot(snapshot.revision + 1, data);
+      }
+      return snapshot;
+    }
+  }
+
+  /**
+   * the returned array is shared between calls of the same revision and must not be modified.
+   */
   @Override
   public String[] getPropertyNames() {
-    Set<String> strings = this.configConverter.getCurrentData().keySet();
-    return strings.toArray(new String[strings.size()]);
+    return getSnapshot().names;
   }
 
   @Override
   public Object getProperty(String name) {
-    return this.configConverter.getCurrentData().get(name);
+    return getSnapshot().data.get(name);
   }
 }
@@ -0,0 +1,173 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.config;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBean;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesRebinder;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Refresh only beans affected by changed keys, instead of publishing RefreshEvent to refresh the whole context.
+ *
+ * ServiceCombConfigPropertySource reads current config data, so bootstrap does not need to run again. Keys
+ * are mapped to prefixes of {@link ConfigurationProperties} beans, and only these beans are rebound or, if
+ * they are in refresh scope, recreated. Keys not bound by any of them may be injected by @Value, so all
+ * refresh scope beans are recreated for them. Governance keys are skipped, governance listens to
+ * ConfigRefreshEvent.
+ */
+public class TargetedConfigRefresher implements ApplicationContextAware {
+  private static final Logger LOGGER = LoggerFactory.getLogger(TargetedConfigRefresher.class);
+
+  static final List<String> GOVERNANCE_PREFIXES = Arrays.asList("servicecomb.matchGroup",
+      "servicecomb.rateLimiting", "servicecomb.circuitBreaker", "servicecomb.bulkhead", "servicecomb.retry");
+
+  private static final String REFRESH_SCOPE = "refresh";
+
+  private final ConfigurationPropertiesRebinder rebinder;
+
+  private final RefreshScope refreshScope;
+
+  private ApplicationContext applicationContext;
+
+  public TargetedConfigRefresher(ConfigurationPropertiesRebinder rebinder, RefreshScope refreshScope) {
+    this.rebinder = rebinder;
+    this.refreshScope = refreshScope;
+  }
+
+  @Override
+  public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+    this.applicationContext = applicationContext;
+  }
+
+  static boolean isGovernanceKey(String key) {
+    return GOVERNANCE_PREFIXES.stream().anyMatch(prefix -> key.startsWith(prefix + "."));
+  }
+
+  // adapt accepts camelCase and underscore keys that are not valid canonical names
+  static ConfigurationPropertyName adapt(String key) {
+    return ConfigurationPropertyName.adapt(key, '.');
+  }
+
+  static boolean matches(String prefix, ConfigurationPropertyName name) {
+    if (prefix.isEmpty()) {
+      return true;
+    }
+    ConfigurationPropertyName prefixName = ConfigurationPropertyName.of(prefix);
+    return prefixName.equals(name) || prefixName.isAncestorOf(name);
+  }
+
+  public void refresh(Set<String> changedKeys) {
+    Set<String> keys = changedKeys.stream().filter(key -> !isGovernanceKey(key)).collect(Collectors.toSet());
+    if (keys.isEmpty()) {
+      LOGGER.info("only governance configurations changed, skip refresh.");
+      return;
+    }
+
+    Map<String, ConfigurationPropertyName> names = new HashMap<>();
+    for (String key : keys) {
+      ConfigurationPropertyName name = adapt(key);
+      if (!name.isEmpty()) {
+        names.put(key, name);
+      }
+    }
+    Set<String> boundKeys = new HashSet<>();
+    Set<String> rebound = new HashSet<>();
+    for (String beanName : rebinder.getBeanNames()) {
+      String prefix = prefixOf(beanName);
+      if (prefix != null && bind(prefix, names, boundKeys) && rebinder.rebind(beanName)) {
+        rebound.add(beanName);
+      }
+    }
+
+    Set<String> recreated = new HashSet<>();
+    if (refreshScope != null) {
+      for (String beanName : refreshScopeBeanNames()) {
+        ConfigurationProperties annotation = applicationContext
+            .findAnnotationOnBean(beanName, ConfigurationProperties.class);
+        if (annotation != null && bind(annotation.prefix(), names, boundKeys) && refreshScope.refresh(beanName)) {
+          recreated.add(beanName);
+        }
+      }
+      if (!boundKeys.containsAll(keys)) {
+        refreshScope.refreshAll();
+        recreated.add("*");
+      }
+    }
+    // logging levels and other listeners see rebound beans, rebinder ignores events not from application context
+    applicationContext.publishEvent(new EnvironmentChangeEvent(this, keys));
+    LOGGER.info("targeted refresh for keys {}, rebound beans {}, recreated refresh scope beans {}.", keys,
+        rebound, recreated);
+  }
+
+  private String prefixOf(String beanName) {
+    try {
+      ConfigurationPropertiesBean bean = ConfigurationPropertiesBean
+          .get(applicationContext, applicationContext.getBean(beanName), beanName);
+      return bean == null ? null : bean.getAnnotation().prefix();
+    } catch (BeansException e) {
+      LOGGER.warn("can not find prefix of bean {}, {}", beanName, e.getMessage());
+      return null;
+    }
+  }
+
+  private static boolean bind(String prefix, Map<String, ConfigurationPropertyName> names, Set<String> boundKeys) {
+    boolean matched = false;
+    for (Map.Entry<String, ConfigurationPropertyName> entry : names.entrySet()) {
+      if (matches(prefix, entry.getValue())) {
+        boundKeys.add(entry.getKey());
+        matched = true;
+      }
+    }
+    return matched;
+  }
+
+  private Set<String> refreshScopeBeanNames() {
+    Set<String> result = new HashSet<>();
+    if (!(applicationContext instanceof ConfigurableApplicationContext)) {
+      return result;
+    }
+    ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) applicationContext)
+        .getBeanFactory();
+    for (String beanName : beanFactory.getBeanDefinitionNames()) {
+      BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+      if (REFRESH_SCOPE.equals(definition.getScope())) {
+        result.add(beanName);
+      }
+    }
+    return result;
+  }
+}
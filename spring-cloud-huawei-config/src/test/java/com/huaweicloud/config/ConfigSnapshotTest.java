@@ -0,0 +1,97 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.config;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.servicecomb.config.common.ConfigConverter;
+import org.apache.servicecomb.config.common.ConfigurationChangedEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigSnapshotTest {
+  @Test
+  public void testWriteAndLoad() throws Exception {
+    Path file = Files.createTempDirectory("snapshot").resolve("test.snapshot");
+    Map<String, Object> data = new HashMap<>();
+    data.put("key", "value");
+    data.put("number", 1);
+    ConfigConverter configConverter = new ConfigConverter(null);
+    configConverter.updateData(data);
+
+    ConfigSnapshot writer = new ConfigSnapshot(file, "secret", configConverter);
+    Assert.assertNull(writer.load());
+    writer.update("r1");
+    for (int i = 0; i < 50 && !Files.exists(file); i++) {
+      Thread.sleep(100);
+    }
+    Assert.assertTrue(Files.exists(file));
+    Assert.assertFalse(new String(Files.readAllBytes(file), "ISO-8859-1").contains("value"));
+
+    ConfigSnapshot reader = new ConfigSnapshot(file, "secret", new ConfigConverter(null));
+    Map<String, Object> loaded = reader.load();
+    Assert.assertEquals(2, loaded.size());
+    Assert.assertEquals("value", loaded.get("key"));
+    Assert.assertEquals(1, loaded.get("number"));
+    Assert.assertEquals("r1", reader.getRevision());
+
+    Assert.assertNull(new ConfigSnapshot(file, "other", new ConfigConverter(null)).load());
+  }
+
+  @Test
+  public void testTypedValuesNotChangedAfterBoot() throws Exception {
+    Path file = Files.createTempDirectory("snapshot").resolve("test.snapshot");
+    Map<String, Object> data = new HashMap<>();
+    data.put("string", "value");
+    data.put("int", 1);
+    data.put("long", 2L);
+    data.put("double", 1.5D);
+    data.put("boolean", true);
+    data.put("null", null);
+    ConfigConverter configConverter = new ConfigConverter(null);
+    configConverter.updateData(data);
+    new ConfigSnapshot(file, "secret", configConverter).update("r1");
+    for (int i = 0; i < 50 && !Files.exists(file); i++) {
+      Thread.sleep(100);
+    }
+
+    // boot from snapshot, then config center returns the same data
+    ConfigConverter bootConverter = new ConfigConverter(null);
+    bootConverter.updateData(new ConfigSnapshot(file, "secret", bootConverter).load());
+    Map<String, Object> before = bootConverter.getCurrentData();
+    bootConverter.updateData(data);
+    ConfigurationChangedEvent event = ConfigurationChangedEvent
+        .createIncremental(bootConverter.getCurrentData(), before);
+    Assert.assertFalse(event.isChanged());
+  }
+
+  @Test
+  public void testChangeKeepsRevision() throws Exception {
+    Path file = Files.createTempDirectory("snapshot").resolve("test.snapshot");
+    ConfigConverter configConverter = new ConfigConverter(null);
+    configConverter.updateData(new HashMap<>());
+    ConfigSnapshot writer = new ConfigSnapshot(file, "secret", configConverter);
+    writer.update("r1");
+    writer.onConfigurationChangedEvent(ConfigurationChangedEvent.createIncremental(new HashMap<>(),
+        new HashMap<>()));
+    Assert.assertEquals("r1", writer.getRevision());
+  }
+}
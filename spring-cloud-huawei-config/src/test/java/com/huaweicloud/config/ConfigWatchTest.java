@@ -0,0 +1,67 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.servicecomb.config.common.ConfigurationChangedEvent;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.cloud.endpoint.event.RefreshEvent;
+
+import com.huaweicloud.common.event.ConfigRefreshEvent;
+
+public class ConfigWatchTest {
+  @Test
+  public void testDebounce() throws Exception {
+    List<Object> events = Collections.synchronizedList(new ArrayList<>());
+    ConfigWatch configWatch = new ConfigWatch(null, 200);
+    configWatch.setApplicationEventPublisher(events::add);
+
+    Map<String, Object> last = new HashMap<>();
+    for (int i = 0; i < 3; i++) {
+      Map<String, Object> latest = new HashMap<>(last);
+      latest.put("key" + i, "value");
+      configWatch.onConfigurationChangedEvent(ConfigurationChangedEvent.createIncremental(latest, last));
+      last = latest;
+    }
+    Assert.assertTrue(events.isEmpty());
+
+    for (int i = 0; i < 50 && events.size() < 2; i++) {
+      Thread.sleep(100);
+    }
+    Assert.assertEquals(2, events.size());
+    Assert.assertEquals(3, ((ConfigRefreshEvent) events.get(0)).getChange().size());
+    Assert.assertTrue(events.get(1) instanceof RefreshEvent);
+  }
+
+  @Test
+  public void testNoDebounce() {
+    List<Object> events = new ArrayList<>();
+    ConfigWatch configWatch = new ConfigWatch();
+    configWatch.setApplicationEventPublisher(events::add);
+
+    configWatch.onConfigurationChangedEvent(
+        ConfigurationChangedEvent.createIncremental(Collections.singletonMap("key", "value"), new HashMap<>()));
+    Assert.assertEquals(2, events.size());
+  }
+}
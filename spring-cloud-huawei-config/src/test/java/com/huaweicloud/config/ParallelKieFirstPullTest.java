@@ -0,0 +1,66 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.config;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.servicecomb.config.kie.client.model.ConfigurationsRequest;
+import org.apache.servicecomb.config.kie.client.model.ConfigurationsRequestFactory;
+import org.apache.servicecomb.config.kie.client.model.ConfigurationsResponse;
+import org.apache.servicecomb.config.kie.client.model.KieConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelKieFirstPullTest {
+  @Test
+  public void testPrefetch() {
+    KieConfiguration kieConfiguration = new KieConfiguration().setAppName("app").setServiceName("service")
+        .setEnvironment("").setCustomLabel("public").setCustomLabelValue("").setEnableAppConfig(true)
+        .setEnableServiceConfig(true).setEnableCustomConfig(true);
+    ParallelKieFirstPull firstPull = new ParallelKieFirstPull(request -> {
+      throw new IllegalStateException("should use prefetched response");
+    }, () -> request -> {
+      try {
+        Thread.sleep(300);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new ConfigurationsResponse().setChanged(true).setRevision("1")
+          .setConfigurations(Collections.singletonMap("labels", request.getLabelsQuery()));
+    });
+
+    long begin = System.currentTimeMillis();
+    firstPull.prefetch(kieConfiguration);
+    Assert.assertTrue(System.currentTimeMillis() - begin < 900);
+
+    List<ConfigurationsRequest> requests = ConfigurationsRequestFactory.buildConfigurationRequests(kieConfiguration);
+    Assert.assertEquals(3, requests.size());
+    Assert.assertEquals(3, firstPull.getLayerLatency().size());
+    for (ConfigurationsRequest request : requests) {
+      Assert.assertEquals(request.getLabelsQuery(),
+          firstPull.queryConfigurations(request).getConfigurations().get("labels"));
+    }
+    try {
+      firstPull.queryConfigurations(requests.get(0));
+      Assert.fail("prefetched response should be used only once");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("should use prefetched response", e.getMessage());
+    }
+  }
+}
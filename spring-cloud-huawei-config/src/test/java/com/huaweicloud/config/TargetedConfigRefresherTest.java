@@ -0,0 +1,57 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.config;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+
+public class TargetedConfigRefresherTest {
+  @Test
+  public void testIsGovernanceKey() {
+    Assert.assertTrue(TargetedConfigRefresher.isGovernanceKey("servicecomb.rateLimiting.limiter0"));
+    Assert.assertTrue(TargetedConfigRefresher.isGovernanceKey("servicecomb.matchGroup.demo"));
+    Assert.assertFalse(TargetedConfigRefresher.isGovernanceKey("servicecomb.retryPolicy"));
+    Assert.assertFalse(TargetedConfigRefresher.isGovernanceKey("spring.cloud.servicecomb.config.enabled"));
+  }
+
+  @Test
+  public void testMatches() {
+    Assert.assertTrue(TargetedConfigRefresher.matches("demo.user", ConfigurationPropertyName.adapt("demo.user", '.')));
+    Assert.assertTrue(TargetedConfigRefresher.matches("demo.user",
+        ConfigurationPropertyName.adapt("demo.user.max-size", '.')));
+    Assert.assertTrue(TargetedConfigRefresher.matches("demo.user-info",
+        ConfigurationPropertyName.adapt("demo.user-info.name", '.')));
+    Assert.assertFalse(TargetedConfigRefresher.matches("demo.user",
+        ConfigurationPropertyName.adapt("demo.users.name", '.')));
+    Assert.assertTrue(TargetedConfigRefresher.matches("", ConfigurationPropertyName.adapt("any.key", '.')));
+  }
+
+  @Test
+  public void testMatchesCamelCase() {
+    Assert.assertFalse(ConfigurationPropertyName.isValid("demo.user.maxSize"));
+    Assert.assertTrue(TargetedConfigRefresher.matches("demo.user",
+        TargetedConfigRefresher.adapt("demo.user.maxSize")));
+    Assert.assertTrue(TargetedConfigRefresher.matches("demo.user-info",
+        TargetedConfigRefresher.adapt("demo.userInfo.name")));
+    Assert.assertTrue(TargetedConfigRefresher.matches("demo.user",
+        TargetedConfigRefresher.adapt("demo.user.max_size")));
+    Assert.assertFalse(TargetedConfigRefresher.matches("demo.user",
+        TargetedConfigRefresher.adapt("demo.userInfo.name")));
+  }
+}
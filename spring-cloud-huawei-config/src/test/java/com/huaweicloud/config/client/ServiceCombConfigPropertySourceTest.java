@@ -61,4 +61,27 @@ public class ServiceCombConfigPropertySourceTest extends MockUp<ServiceCombConfi
     Object result = serviceCombConfigPropertySource.getProperty("test");
     Assert.assertEquals(result, "tt");
   }
-}
\ No newline at end of file
+
+  @Test
+  public void getSnapshot() {
+    Map<String, Object> sources = new HashMap<>();
+    sources.put("test", "tt");
+    ConfigConverter configConverter = new ConfigConverter(null);
+    configConverter.updateData(sources);
+
+    ServiceCombConfigPropertySource serviceCombConfigPropertySource = new ServiceCombConfigPropertySource(
+        configConverter);
+
+    ServiceCombConfigPropertySource.Snapshot snapshot = serviceCombConfigPropertySource.getSnapshot();
+    Assert.assertSame(snapshot, serviceCombConfigPropertySource.getSnapshot());
+    Assert.assertSame(serviceCombConfigPropertySource.getPropertyNames(),
+        serviceCombConfigPropertySource.getPropertyNames());
+
+    Map<String, Object> changed = new HashMap<>(sources);
+    changed.put("test2", "tt2");
+    configConverter.updateData(changed);
+    Assert.assertEquals(snapshot.getRevision() + 1, serviceCombConfigPropertySource.getSnapshot().getRevision());
+    Assert.assertEquals(2, serviceCombConfigPropertySource.getPropertyNames().length);
+    Assert.assertEquals("tt2", serviceCombConfigPropertySource.getProperty("test2"));
+  }
+}
@@ -22,33 +22,44 @@ import java.util.List;
 import org.apache.servicecomb.foundation.auth.AuthHeaderProvider;
 import org.apache.servicecomb.service.center.client.ServiceCenterClient;
 import org.apache.servicecomb.service.center.client.ServiceCenterWatch;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.availability.ApplicationAvailabilityAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.availability.ApplicationAvailability;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.huaweicloud.common.disovery.ServiceCenterUtils;
 import com.huaweicloud.common.transport.DiscoveryBootstrapProperties;
-import com.huaweicloud.common.transport.ServiceCombSSLProperties;
+import com.huaweicloud.common.transport.SharedHttpTransportFactory;
 import com.huaweicloud.servicecomb.discovery.discovery.DiscoveryProperties;
 
 @Configuration
 @ConditionalOnServiceCombDiscoveryEnabled
 @EnableConfigurationProperties(DiscoveryProperties.class)
+@AutoConfigureBefore(ApplicationAvailabilityAutoConfiguration.class)
 public class DiscoveryAutoConfiguration {
+  @Bean
+  @ConditionalOnMissingBean(ApplicationAvailability.class)
+  public GatedApplicationAvailability applicationAvailability(ObjectProvider<ReadinessGate> readinessGates) {
+    return new GatedApplicationAvailability(readinessGates);
+  }
+
   @Bean
   @ConditionalOnMissingBean
   public ServiceCenterClient serviceCenterClient(DiscoveryBootstrapProperties discoveryProperties,
-      ServiceCombSSLProperties serviceCombSSLProperties,
+      SharedHttpTransportFactory sharedHttpTransportFactory,
       List<AuthHeaderProvider> authHeaderProviders) {
-    return ServiceCenterUtils.serviceCenterClient(discoveryProperties, serviceCombSSLProperties, authHeaderProviders);
+    return ServiceCenterUtils.serviceCenterClient(discoveryProperties, sharedHttpTransportFactory, authHeaderProviders);
   }
 
   @Bean
   @ConditionalOnMissingBean
   public ServiceCenterWatch serviceCenterWatch(DiscoveryBootstrapProperties discoveryProperties,
-      ServiceCombSSLProperties serviceCombSSLProperties,
+      SharedHttpTransportFactory sharedHttpTransportFactory,
       List<AuthHeaderProvider> authHeaderProviders) {
-    return ServiceCenterUtils.serviceCenterWatch(discoveryProperties, serviceCombSSLProperties, authHeaderProviders);
+    return ServiceCenterUtils.serviceCenterWatch(discoveryProperties, sharedHttpTransportFactory, authHeaderProviders);
   }
 }
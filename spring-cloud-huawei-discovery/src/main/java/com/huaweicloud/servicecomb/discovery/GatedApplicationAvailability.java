@@ -0,0 +1,52 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.AvailabilityState;
+import org.springframework.boot.availability.ReadinessState;
+
+/**
+ * Readiness is refused while any {@link ReadinessGate} is not ready, whatever order availability events
+ * are published. Readiness probes, e.g. actuator readinessState, read state from this bean.
+ */
+public class GatedApplicationAvailability extends ApplicationAvailabilityBean {
+  private final ObjectProvider<ReadinessGate> readinessGates;
+
+  public GatedApplicationAvailability(ObjectProvider<ReadinessGate> readinessGates) {
+    this.readinessGates = readinessGates;
+  }
+
+  @Override
+  public <S extends AvailabilityState> S getState(Class<S> stateType, S defaultState) {
+    return gate(stateType, super.getState(stateType, defaultState));
+  }
+
+  @Override
+  public <S extends AvailabilityState> S getState(Class<S> stateType) {
+    return gate(stateType, super.getState(stateType));
+  }
+
+  private <S extends AvailabilityState> S gate(Class<S> stateType, S state) {
+    if (state != ReadinessState.ACCEPTING_TRAFFIC || readinessGates.stream().allMatch(ReadinessGate::isReady)) {
+      return state;
+    }
+    return stateType.cast(ReadinessState.REFUSING_TRAFFIC);
+  }
+}
@@ -28,6 +28,9 @@ public final class DiscoveryConstants {
 
   public static final String INSTANCE_ZONE = "zone";
 
+  // instance is loaded from local snapshot and not confirmed by service center
+  public static final String INSTANCE_STALE = "stale";
+
   public static final String DEFAULT_PROJECT = "default";
 
   public static final String TENANT_NAME = "servicecomb.config.client.tenantName";
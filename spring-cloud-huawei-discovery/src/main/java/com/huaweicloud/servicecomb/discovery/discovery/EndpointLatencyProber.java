@@ -0,0 +1,162 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery.discovery;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measure connect time of service center endpoints and split them into preferred and fallback endpoints.
+ *
+ * An endpoint is preferred when it can be connected and its smoothed RTT is not more than slowRatio times
+ * the fastest one. Other endpoints are isolated, and probed again after a back-off which doubles on each
+ * failed probe, up to MAX_BACKOFF.
+ */
+public class EndpointLatencyProber {
+  private static final Logger LOGGER = LoggerFactory.getLogger(EndpointLatencyProber.class);
+
+  private static final long MAX_BACKOFF = 10 * 60 * 1000L;
+
+  private static final double DECAY = 0.3;
+
+  private final int probeTimeout;
+
+  private final double slowRatio;
+
+  private final long baseBackoff;
+
+  private final Map<String, EndpointState> states = new ConcurrentHashMap<>();
+
+  static class EndpointState {
+    // -1 means never connected
+    double rtt = -1;
+
+    int failures;
+
+    long isolatedUntil;
+  }
+
+  public EndpointLatencyProber(int probeTimeout, double slowRatio, long baseBackoff) {
+    this.probeTimeout = probeTimeout;
+    this.slowRatio = slowRatio;
+    this.baseBackoff = baseBackoff;
+  }
+
+  /**
+   * probe endpoints and order them by RTT.
+   *
+   * @return two lists, the first one is preferred endpoints and the second one is isolated endpoints
+   */
+  public List<List<String>> rank(Collection<String> endpoints) {
+    long now = System.currentTimeMillis();
+    states.keySet().retainAll(endpoints);
+    for (String endpoint : endpoints) {
+      EndpointState state = states.computeIfAbsent(endpoint, key -> new EndpointState());
+      if (state.isolatedUntil > now) {
+        continue;
+      }
+      long rtt = probe(endpoint);
+      if (rtt < 0) {
+        state.failures++;
+        state.isolatedUntil = now + backoff(state.failures);
+        LOGGER.warn("endpoint {} can not be connected, isolate it for {} ms.", endpoint,
+            state.isolatedUntil - now);
+        continue;
+      }
+      // samples before isolation are outdated
+      if (state.rtt < 0 || state.isolatedUntil > 0) {
+        state.rtt = rtt;
+        state.isolatedUntil = 0;
+      } else {
+        state.rtt = state.rtt * (1 - DECAY) + rtt * DECAY;
+      }
+    }
+
+    double best = Double.MAX_VALUE;
+    for (String endpoint : endpoints) {
+      EndpointState state = states.get(endpoint);
+      if (state.isolatedUntil <= now && state.rtt >= 0) {
+        best = Math.min(best, state.rtt);
+      }
+    }
+    // connect time in the same zone can be 0 ms
+    best = Math.max(1, best);
+
+    List<String> preferred = new ArrayList<>();
+    List<String> isolated = new ArrayList<>();
+    for (String endpoint : endpoints) {
+      EndpointState state = states.get(endpoint);
+      if (state.isolatedUntil > now || state.rtt < 0) {
+        isolated.add(endpoint);
+      } else if (state.rtt > best * slowRatio) {
+        state.failures++;
+        state.isolatedUntil = now + backoff(state.failures);
+        LOGGER.warn("endpoint {} is slow, rtt {} ms, best {} ms, isolate it for {} ms.", endpoint,
+            (long) state.rtt, (long) best, state.isolatedUntil - now);
+        isolated.add(endpoint);
+      } else {
+        state.failures = 0;
+        preferred.add(endpoint);
+      }
+    }
+    preferred.sort(Comparator.comparingDouble(endpoint -> states.get(endpoint).rtt));
+    List<List<String>> result = new ArrayList<>(2);
+    result.add(preferred);
+    result.add(isolated);
+    return result;
+  }
+
+  private long backoff(int failures) {
+    return Math.min(MAX_BACKOFF, baseBackoff << Math.min(failures - 1, 16));
+  }
+
+  /**
+   * @return milliseconds to connect the endpoint, -1 if failed
+   */
+  protected long probe(String endpoint) {
+    URI uri;
+    try {
+      uri = new URI(endpoint);
+    } catch (URISyntaxException e) {
+      LOGGER.warn("invalid endpoint {}.", endpoint);
+      return -1;
+    }
+    if (uri.getHost() == null || uri.getPort() < 0) {
+      return -1;
+    }
+    long begin = System.nanoTime();
+    try (Socket socket = new Socket()) {
+      socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), probeTimeout);
+      return (System.nanoTime() - begin) / 1000000;
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,268 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery.discovery;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.servicecomb.service.center.client.ServiceCenterDiscovery.SubscriptionKey;
+import org.apache.servicecomb.service.center.client.model.DataCenterInfo;
+import org.apache.servicecomb.service.center.client.model.Microservice;
+import org.apache.servicecomb.service.center.client.model.MicroserviceInstance;
+import org.apache.servicecomb.service.center.client.model.MicroserviceInstanceStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.huaweicloud.servicecomb.discovery.client.model.DiscoveryConstants;
+
+/**
+ * Local copy of discovered instances, used when service center can not be reached.
+ *
+ * The snapshot file is rewritten after each instance change. It is written to a temporary file
+ * and then moved, so a crash never leaves a half written snapshot.
+ */
+public class InstanceCacheSnapshot {
+  private static final Logger LOGGER = LoggerFactory.getLogger(InstanceCacheSnapshot.class);
+
+  private static final int MAGIC = 0x53434943;
+
+  private static final int FORMAT_VERSION = 1;
+
+  private final Path file;
+
+  private final Map<String, List<MicroserviceInstance>> instances = new ConcurrentHashMap<>();
+
+  private final Map<SubscriptionKey, List<MicroserviceInstance>> staleInstances = new ConcurrentHashMap<>();
+
+  private final AtomicBoolean writePending = new AtomicBoolean(false);
+
+  private final ExecutorService writer = Executors.newSingleThreadExecutor(t -> {
+    Thread thread = new Thread(t, "instance-snapshot-writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private volatile long snapshotTime = -1;
+
+  public InstanceCacheSnapshot(Path file) {
+    this.file = file;
+  }
+
+  private static String key(String appId, String serviceName) {
+    return appId + DiscoveryConstants.APP_SERVICE_SEPRATOR + serviceName;
+  }
+
+  /**
+   * load instances from snapshot file, all of them are marked as stale.
+   */
+  public void load() {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        LOGGER.warn("ignore instance snapshot {}, unknown format.", file);
+        return;
+      }
+      long time = in.readLong();
+      int serviceCount = in.readInt();
+      for (int i = 0; i < serviceCount; i++) {
+        String appId = in.readUTF();
+        String serviceName = in.readUTF();
+        int instanceCount = in.readInt();
+        List<MicroserviceInstance> list = new ArrayList<>(instanceCount);
+        for (int j = 0; j < instanceCount; j++) {
+          list.add(readInstance(in, appId, serviceName));
+        }
+        staleInstances.put(new SubscriptionKey(appId, serviceName), Collections.unmodifiableList(list));
+        instances.put(key(appId, serviceName), list);
+      }
+      snapshotTime = time;
+      LOGGER.info("loaded {} services from instance snapshot {}, age {} ms.", serviceCount, file,
+          getSnapshotAge());
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("read instance snapshot {} failed, {}", file, e.getMessage());
+      staleInstances.clear();
+      instances.clear();
+    }
+  }
+
+  /**
+   * @return instances loaded from snapshot, null if there is no snapshot for this service.
+   */
+  public List<MicroserviceInstance> getStaleInstances(String appId, String serviceName) {
+    return getStaleInstances(new SubscriptionKey(appId, serviceName));
+  }
+
+  /**
+   * @return instances loaded from snapshot, null if there is no snapshot for this service.
+   */
+  public List<MicroserviceInstance> getStaleInstances(SubscriptionKey subscriptionKey) {
+    return staleInstances.get(subscriptionKey);
+  }
+
+  /**
+   * @return milliseconds since the loaded snapshot was written, -1 if no snapshot is loaded.
+   */
+  public long getSnapshotAge() {
+    long time = snapshotTime;
+    return time < 0 ? -1 : System.currentTimeMillis() - time;
+  }
+
+  public void update(String appId, String serviceName, List<MicroserviceInstance> changed) {
+    String key = key(appId, serviceName);
+    staleInstances.remove(new SubscriptionKey(appId, serviceName));
+    instances.put(key, changed == null ? Collections.emptyList() : new ArrayList<>(changed));
+    if (writePending.compareAndSet(false, true)) {
+      writer.execute(() -> {
+        writePending.set(false);
+        write();
+      });
+    }
+  }
+
+  private void write() {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      Map<String, List<MicroserviceInstance>> copy = new HashMap<>(instances);
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(copy.size());
+        for (Map.Entry<String, List<MicroserviceInstance>> entry : copy.entrySet()) {
+          int idx = entry.getKey().indexOf(DiscoveryConstants.APP_SERVICE_SEPRATOR);
+          out.writeUTF(entry.getKey().substring(0, idx));
+          out.writeUTF(entry.getKey().substring(idx + 1));
+          out.writeInt(entry.getValue().size());
+          for (MicroserviceInstance instance : entry.getValue()) {
+            writeInstance(out, instance);
+          }
+        }
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("write instance snapshot {} failed, {}", file, e.getMessage());
+    }
+  }
+
+  private static void writeInstance(DataOutputStream out, MicroserviceInstance instance) throws IOException {
+    writeNullable(out, instance.getInstanceId());
+    writeNullable(out, instance.getServiceId());
+    writeNullable(out, instance.getVersion());
+    writeNullable(out, instance.getHostName());
+    writeNullable(out, instance.getStatus() == null ? null : instance.getStatus().name());
+    writeNullable(out, instance.getTimestamp());
+    writeNullable(out, instance.getModTimestamp());
+    List<String> endpoints = instance.getEndpoints() == null ? Collections.emptyList() : instance.getEndpoints();
+    out.writeInt(endpoints.size());
+    for (String endpoint : endpoints) {
+      out.writeUTF(endpoint);
+    }
+    Map<String, String> properties = new HashMap<>();
+    if (instance.getProperties() != null) {
+      properties.putAll(instance.getProperties());
+    }
+    properties.remove(DiscoveryConstants.INSTANCE_STALE);
+    out.writeInt(properties.size());
+    for (Map.Entry<String, String> entry : properties.entrySet()) {
+      out.writeUTF(entry.getKey());
+      writeNullable(out, entry.getValue());
+    }
+    DataCenterInfo dataCenterInfo = instance.getDataCenterInfo();
+    out.writeBoolean(dataCenterInfo != null);
+    if (dataCenterInfo != null) {
+      writeNullable(out, dataCenterInfo.getName());
+      writeNullable(out, dataCenterInfo.getRegion());
+      writeNullable(out, dataCenterInfo.getAvailableZone());
+    }
+  }
+
+  private static MicroserviceInstance readInstance(DataInputStream in, String appId, String serviceName)
+      throws IOException {
+    MicroserviceInstance instance = new MicroserviceInstance();
+    instance.setInstanceId(readNullable(in));
+    instance.setServiceId(readNullable(in));
+    instance.setVersion(readNullable(in));
+    instance.setHostName(readNullable(in));
+    String status = readNullable(in);
+    instance.setStatus(status == null ? null : MicroserviceInstanceStatus.valueOf(status));
+    instance.setTimestamp(readNullable(in));
+    instance.setModTimestamp(readNullable(in));
+    int endpointCount = in.readInt();
+    List<String> endpoints = new ArrayList<>(endpointCount);
+    for (int i = 0; i < endpointCount; i++) {
+      endpoints.add(in.readUTF());
+    }
+    instance.setEndpoints(endpoints);
+    int propertyCount = in.readInt();
+    Map<String, String> properties = new HashMap<>();
+    for (int i = 0; i < propertyCount; i++) {
+      properties.put(in.readUTF(), readNullable(in));
+    }
+    properties.put(DiscoveryConstants.INSTANCE_STALE, "true");
+    instance.setProperties(properties);
+    if (in.readBoolean()) {
+      DataCenterInfo dataCenterInfo = new DataCenterInfo();
+      dataCenterInfo.setName(readNullable(in));
+      dataCenterInfo.setRegion(readNullable(in));
+      dataCenterInfo.setAvailableZone(readNullable(in));
+      instance.setDataCenterInfo(dataCenterInfo);
+    }
+    Microservice microservice = new Microservice();
+    microservice.setAppId(appId);
+    microservice.setServiceName(serviceName);
+    microservice.setServiceId(instance.getServiceId());
+    instance.setMicroservice(microservice);
+    return instance;
+  }
+
+  private static void writeNullable(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  private static String readNullable(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+}
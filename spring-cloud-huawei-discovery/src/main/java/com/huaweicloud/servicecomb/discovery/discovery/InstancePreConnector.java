@@ -0,0 +1,174 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery.discovery;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.servicecomb.service.center.client.DiscoveryEvents.InstanceChangedEvent;
+import org.apache.servicecomb.service.center.client.model.MicroserviceInstance;
+import org.apache.servicecomb.service.center.client.model.MicroserviceInstanceStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.Subscribe;
+import com.huaweicloud.common.event.EventManager;
+import com.huaweicloud.common.transport.DiscoveryBootstrapProperties;
+import com.huaweicloud.common.util.URLUtil;
+import com.huaweicloud.servicecomb.discovery.client.model.DiscoveryConstants;
+
+/**
+ * Open keep-alive connections to instances that are newly discovered, so that the first requests do not
+ * pay for TCP and TLS handshakes.
+ *
+ * Connections are opened with HttpURLConnection and returned to the JDK keep-alive cache, which is shared
+ * by RestTemplate and Feign clients using the default HttpURLConnection based request factories. Clients
+ * with their own connection pools are not warmed.
+ *
+ * Each connection sends a real GET to preConnectPath, so the path must be set explicitly and should be cheap
+ * and free of side effects, for example a health check. The JDK keep-alive cache closes idle connections after
+ * the timeout given by the server Keep-Alive header, about 5 seconds when the server gives none, so pre
+ * connected connections only help requests sent shortly after an instance is discovered.
+ */
+public class InstancePreConnector {
+  private static final Logger LOGGER = LoggerFactory.getLogger(InstancePreConnector.class);
+
+  private static final int MAX_PENDING_INSTANCES = 1000;
+
+  private final DiscoveryBootstrapProperties discoveryProperties;
+
+  // appId.serviceName -> known instance ids
+  private final Map<String, Set<String>> knownInstances = new ConcurrentHashMap<>();
+
+  private final ExecutorService executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS,
+      new LinkedBlockingQueue<>(MAX_PENDING_INSTANCES), r -> {
+    Thread thread = new Thread(r, "instance-pre-connector");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public InstancePreConnector(DiscoveryBootstrapProperties discoveryProperties) {
+    if (StringUtils.isEmpty(discoveryProperties.getPreConnectPath())) {
+      throw new IllegalStateException(
+          "spring.cloud.servicecomb.discovery.preConnectPath is required when pre connect is enabled.");
+    }
+    this.discoveryProperties = discoveryProperties;
+    EventManager.register(this);
+  }
+
+  @Subscribe
+  public void onInstanceChangedEvent(InstanceChangedEvent event) {
+    for (String address : newAddresses(event)) {
+      try {
+        executor.execute(() -> preConnect(address));
+      } catch (RejectedExecutionException e) {
+        LOGGER.warn("too many instances to pre connect, skip {}.", address);
+      }
+    }
+  }
+
+  /**
+   * @return rest addresses of UP instances not known before, known instances are replaced by UP instances of
+   * the event, so that an instance turning UP later is pre connected
+   */
+  List<String> newAddresses(InstanceChangedEvent event) {
+    String key = event.getAppName() + DiscoveryConstants.APP_SERVICE_SEPRATOR + event.getServiceName();
+    List<MicroserviceInstance> instances = event.getInstances() == null ? Collections.emptyList()
+        : event.getInstances().stream().filter(instance -> instance.getStatus() == MicroserviceInstanceStatus.UP)
+            .collect(Collectors.toList());
+    Set<String> current = instances.stream().map(MicroserviceInstance::getInstanceId)
+        .collect(Collectors.toSet());
+    Set<String> previous = knownInstances.put(key, current);
+    List<String> addresses = new ArrayList<>();
+    for (MicroserviceInstance instance : instances) {
+      if (previous != null && previous.contains(instance.getInstanceId())) {
+        continue;
+      }
+      String address = restAddress(instance);
+      if (address != null) {
+        addresses.add(address);
+      }
+    }
+    return addresses;
+  }
+
+  private static String restAddress(MicroserviceInstance instance) {
+    if (instance.getEndpoints() == null) {
+      return null;
+    }
+    return instance.getEndpoints().stream().filter(e -> e.startsWith("rest://")).findFirst()
+        .map(URLUtil::transform).orElse(null);
+  }
+
+  private void preConnect(String address) {
+    long begin = System.currentTimeMillis();
+    // keep all connections busy until every one is opened, otherwise they reuse the same socket
+    List<HttpURLConnection> connections = new ArrayList<>();
+    List<InputStream> responses = new ArrayList<>();
+    try {
+      URL url = new URL(address + discoveryProperties.getPreConnectPath());
+      for (int i = 0; i < discoveryProperties.getPreConnectCount(); i++) {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connections.add(connection);
+        connection.setConnectTimeout(discoveryProperties.getPreConnectTimeout());
+        connection.setReadTimeout(discoveryProperties.getPreConnectTimeout());
+        connection.setRequestMethod("GET");
+        responses.add(connection.getResponseCode() < HttpURLConnection.HTTP_BAD_REQUEST ?
+            connection.getInputStream() : connection.getErrorStream());
+      }
+      LOGGER.info("pre connected {} connections to {} in {} ms.", connections.size(), address,
+          System.currentTimeMillis() - begin);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("pre connect to {} failed, {}", address, e.getMessage());
+    } finally {
+      for (InputStream response : responses) {
+        drain(response);
+      }
+    }
+  }
+
+  // read the whole response so that the connection goes back to keep-alive cache
+  private static void drain(InputStream response) {
+    if (response == null) {
+      return;
+    }
+    byte[] buffer = new byte[1024];
+    try (InputStream in = response) {
+      while (in.read(buffer) >= 0) {
+        // discard
+      }
+    } catch (IOException e) {
+      LOGGER.debug("read pre connect response failed, {}", e.getMessage());
+    }
+  }
+}
@@ -23,6 +23,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.servicecomb.http.client.event.RefreshEndpointEvent;
 import org.apache.servicecomb.service.center.client.RegistrationEvents.HeartBeatEvent;
@@ -41,11 +45,19 @@ import com.huaweicloud.common.util.Type;
 import com.huaweicloud.servicecomb.discovery.client.model.DiscoveryConstants;
 import com.huaweicloud.servicecomb.discovery.registry.ServiceCombRegistration;
 
+/**
+ * Discover service center and config center endpoints from service center.
+ *
+ * Endpoints are resolved once after the first heartbeat. When endpointRefreshInterval is set, they are
+ * resolved again and probed on a background thread every interval, endpoints in the same zone with the lowest
+ * connect time are preferred and slow or unreachable endpoints are not used until they recover, see
+ * {@link EndpointLatencyProber}.
+ */
 public class ServiceAddressManager {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ServiceAddressManager.class);
 
-  private boolean initialized = false;
+  private volatile boolean initialized = false;
 
   private ServiceCenterClient serviceCenterClient;
 
@@ -57,6 +69,13 @@ public class ServiceAddressManager {
 
   private String myselfServiceId;
 
+  private final Map<String, EndpointLatencyProber> probers = new ConcurrentHashMap<>();
+
+  // last endpoints sent to address manager of each type
+  private final Map<String, Map<String, List<String>>> lastEndpoints = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService refreshExecutor;
+
   public ServiceAddressManager(DiscoveryBootstrapProperties discoveryProperties,
       ServiceCenterClient serviceCenterClient,
       ServiceCombRegistration serviceCombRegistration) {
@@ -73,26 +92,54 @@ public class ServiceAddressManager {
       return;
     }
     if (event.isSuccess() && discoveryProperties.isAutoDiscovery()) {
-      for (Type type : Type.values()) {
-        initEndPort(type.name());
+      // probing blocks, only done by refresh thread
+      refreshEndPorts(false);
+      if (initialized) {
+        startRefresh();
       }
     }
   }
 
-  private void initEndPort(String key) {
+  private synchronized void startRefresh() {
+    if (refreshExecutor != null || discoveryProperties.getEndpointRefreshInterval() <= 0) {
+      return;
+    }
+    refreshExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "service-address-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = discoveryProperties.getEndpointRefreshInterval();
+    refreshExecutor.scheduleWithFixedDelay(() -> refreshEndPorts(true), 0, interval, TimeUnit.MILLISECONDS);
+  }
+
+  private synchronized void refreshEndPorts(boolean probe) {
+    for (Type type : Type.values()) {
+      try {
+        initEndPort(type.name(), probe);
+      } catch (RuntimeException e) {
+        LOGGER.warn("refresh endpoints of {} failed, {}", type.name(), e.getMessage());
+      }
+    }
+  }
+
+  private void initEndPort(String key, boolean probe) {
     List<MicroserviceInstance> instances = findServiceInstance(DiscoveryConstants.DEFAULT_APPID,
         key, DiscoveryConstants.VERSION_RULE_LATEST);
     if (DiscoveryConstants.SERVICE_CENTER.equals(key) && !instances.isEmpty()) {
       initialized = true;
     }
-    Map<String, List<String>> zoneAndRegion = generateZoneAndRegionAddress(instances);
-    if (zoneAndRegion == null) {
+    Map<String, List<String>> zoneAndRegion = generateZoneAndRegionAddress(key, instances, probe);
+    if (zoneAndRegion == null || zoneAndRegion.equals(lastEndpoints.get(key))) {
       return;
     }
+    lastEndpoints.put(key, zoneAndRegion);
+    LOGGER.info("refresh endpoints of {}, {}", key, zoneAndRegion);
     EventManager.post(new RefreshEndpointEvent(zoneAndRegion, key));
   }
 
-  private Map<String, List<String>> generateZoneAndRegionAddress(List<MicroserviceInstance> instances) {
+  private Map<String, List<String>> generateZoneAndRegionAddress(String key, List<MicroserviceInstance> instances,
+      boolean probe) {
     if (instances.isEmpty()) {
       return null;
     }
@@ -109,8 +156,33 @@ public class ServiceAddressManager {
         sameRegion.addAll(microserviceInstance.getEndpoints());
       }
     }
-    zoneAndRegion.put("sameZone", new ArrayList<>(sameZone));
-    zoneAndRegion.put("sameRegion", new ArrayList<>(sameRegion));
+    sameRegion.removeAll(sameZone);
+
+    List<String> first = new ArrayList<>(sameZone);
+    List<String> second = new ArrayList<>(sameRegion);
+    if (probe) {
+      Set<String> all = new HashSet<>(sameZone);
+      all.addAll(sameRegion);
+      List<String> preferred = probers.computeIfAbsent(key, k -> new EndpointLatencyProber(
+          discoveryProperties.getEndpointProbeTimeout(), discoveryProperties.getEndpointSlowRatio(),
+          discoveryProperties.getEndpointRefreshInterval())).rank(all).get(0);
+      // isolated endpoints are left out, unless all endpoints are isolated
+      if (!preferred.isEmpty()) {
+        // prefer fast endpoints in same zone, then fast endpoints in other zones
+        first.clear();
+        preferred.stream().filter(sameZone::contains).forEach(first::add);
+        if (first.isEmpty()) {
+          first.addAll(preferred);
+        }
+        second.clear();
+        preferred.stream().filter(endpoint -> !first.contains(endpoint)).forEach(second::add);
+      }
+    }
+    // address manager uses endpoints in round robin, sort them to avoid refreshing when only RTT changed
+    first.sort(null);
+    second.sort(null);
+    zoneAndRegion.put("sameZone", first);
+    zoneAndRegion.put("sameRegion", second);
     return zoneAndRegion;
   }
 
@@ -17,9 +17,16 @@
 
 package com.huaweicloud.servicecomb.discovery.discovery;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -38,7 +45,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
-import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 
@@ -64,6 +70,14 @@ public class ServiceCombDiscoveryClient implements DiscoveryClient, ApplicationE
 
   private final AtomicLong changeId = new AtomicLong(0);
 
+  private InstanceCacheSnapshot instanceCacheSnapshot;
+
+  private final Object changedServicesLock = new Object();
+
+  private Set<String> changedServices = new HashSet<>();
+
+  private ScheduledExecutorService heartbeatEventPublisher;
+
   public ServiceCombDiscoveryClient(DiscoveryBootstrapProperties discoveryProperties,
       ServiceCenterClient serviceCenterClient, ServiceCombRegistration serviceCombRegistration) {
     this.discoveryProperties = discoveryProperties;
@@ -72,9 +86,29 @@ public class ServiceCombDiscoveryClient implements DiscoveryClient, ApplicationE
 
     serviceCenterDiscovery = new ServiceCenterDiscovery(serviceCenterClient, EventManager.getEventBus());
     serviceCenterDiscovery.setPollInterval(discoveryProperties.getPollInterval());
+    if (discoveryProperties.isInstanceSnapshotEnabled()) {
+      instanceCacheSnapshot = new InstanceCacheSnapshot(snapshotFile());
+      instanceCacheSnapshot.load();
+    }
     EventManager.getEventBus().register(this);
   }
 
+  private Path snapshotFile() {
+    if (StringUtils.isNotEmpty(discoveryProperties.getInstanceSnapshotFile())) {
+      return Paths.get(discoveryProperties.getInstanceSnapshotFile());
+    }
+    return Paths.get(System.getProperty("java.io.tmpdir"), "servicecomb",
+        discoveryProperties.getAppName() + DiscoveryConstants.APP_SERVICE_SEPRATOR
+            + discoveryProperties.getServiceName() + ".instances");
+  }
+
+  /**
+   * @return local instance snapshot, null if not enabled.
+   */
+  public InstanceCacheSnapshot getInstanceCacheSnapshot() {
+    return instanceCacheSnapshot;
+  }
+
   @Subscribe
   public void onHeartBeatEvent(HeartBeatEvent event) {
     if (event.isSuccess()) {
@@ -85,10 +119,50 @@ public class ServiceCombDiscoveryClient implements DiscoveryClient, ApplicationE
   }
 
   // 适配 Spring Cloud HeartbeatEvent 事件。 当实例发生变更的时候，通过 HeartbeatEvent 通知
-  // DiscoveryClient 拉取实例。
+  // DiscoveryClient 拉取实例。变更较多时，一个时间窗口内的变更合并为一个事件。
   @Subscribe
   public void onInstanceChangedEvent(InstanceChangedEvent event) {
-    this.applicationEventPublisher.publishEvent(new HeartbeatEvent(this, changeId.getAndIncrement()));
+    if (instanceCacheSnapshot != null) {
+      instanceCacheSnapshot.update(event.getAppName(), event.getServiceName(), event.getInstances());
+    }
+
+    String changed = discoveryProperties.getAppName().equals(event.getAppName()) ? event.getServiceName()
+        : event.getAppName() + DiscoveryConstants.APP_SERVICE_SEPRATOR + event.getServiceName();
+    if (discoveryProperties.getInstanceChangedEventWindow() <= 0) {
+      publishHeartbeatEvent(Collections.singleton(changed));
+      return;
+    }
+
+    synchronized (changedServicesLock) {
+      boolean scheduled = !changedServices.isEmpty();
+      changedServices.add(changed);
+      if (scheduled) {
+        return;
+      }
+      if (heartbeatEventPublisher == null) {
+        heartbeatEventPublisher = Executors.newSingleThreadScheduledExecutor(t -> {
+          Thread thread = new Thread(t, "heartbeat-event-publisher");
+          thread.setDaemon(true);
+          return thread;
+        });
+      }
+      heartbeatEventPublisher.schedule(this::publishChangedServices,
+          discoveryProperties.getInstanceChangedEventWindow(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void publishChangedServices() {
+    Set<String> changed;
+    synchronized (changedServicesLock) {
+      changed = changedServices;
+      changedServices = new HashSet<>();
+    }
+    publishHeartbeatEvent(Collections.unmodifiableSet(changed));
+  }
+
+  private void publishHeartbeatEvent(Set<String> changed) {
+    this.applicationEventPublisher
+        .publishEvent(new ServiceCombHeartbeatEvent(this, changeId.getAndIncrement(), changed));
   }
 
   @Override
@@ -112,6 +186,10 @@ public class ServiceCombDiscoveryClient implements DiscoveryClient, ApplicationE
     SubscriptionKey subscriptionKey = parseMicroserviceName(serviceId);
     serviceCenterDiscovery.registerIfNotPresent(subscriptionKey);
     List<MicroserviceInstance> instances = serviceCenterDiscovery.getInstanceCache(subscriptionKey);
+    if (instances == null && instanceCacheSnapshot != null) {
+      // service center not available yet, use stale instances of last run
+      instances = instanceCacheSnapshot.getStaleInstances(subscriptionKey);
+    }
 
     if (instances == null) {
       return Collections.emptyList();
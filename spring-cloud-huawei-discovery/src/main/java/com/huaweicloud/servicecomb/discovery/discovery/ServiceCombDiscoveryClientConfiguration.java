@@ -18,7 +18,9 @@
 package com.huaweicloud.servicecomb.discovery.discovery;
 
 import org.apache.servicecomb.service.center.client.ServiceCenterClient;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.client.CommonsClientAutoConfiguration;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.context.annotation.Bean;
@@ -59,6 +61,18 @@ public class ServiceCombDiscoveryClientConfiguration {
     return new ServiceCombDiscoveryClient(discoveryProperties, serviceCenterClient, serviceCombRegistration);
   }
 
+  @Bean
+  public ServiceCombDiscoveryWarmUp serviceCombDiscoveryWarmUp(DiscoveryBootstrapProperties discoveryProperties,
+      @Qualifier("serviceCombDiscoveryClient") DiscoveryClient discoveryClient) {
+    return new ServiceCombDiscoveryWarmUp(discoveryProperties, discoveryClient);
+  }
+
+  @Bean
+  @ConditionalOnProperty(value = "spring.cloud.servicecomb.discovery.preConnectEnabled", havingValue = "true")
+  public InstancePreConnector instancePreConnector(DiscoveryBootstrapProperties discoveryProperties) {
+    return new InstancePreConnector(discoveryProperties);
+  }
+
   @Bean
   @Order(100)
   public ServiceAddressManager serviceAddressManager(DiscoveryBootstrapProperties discoveryProperties,
@@ -0,0 +1,182 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery.discovery;
+
+import java.lang.annotation.Annotation;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.servicecomb.service.center.client.RegistrationEvents.HeartBeatEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+
+import com.google.common.eventbus.Subscribe;
+import com.huaweicloud.common.event.EventManager;
+import com.huaweicloud.common.transport.DiscoveryBootstrapProperties;
+import com.huaweicloud.servicecomb.discovery.ReadinessGate;
+
+/**
+ * Subscribe dependent services as soon as this instance is registered, so that the first request
+ * to each of them does not need to wait for discovery. Readiness is refused until warm-up is done, or
+ * warmUpTimeout passed.
+ */
+public class ServiceCombDiscoveryWarmUp implements ApplicationContextAware, SmartInitializingSingleton,
+    ReadinessGate {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ServiceCombDiscoveryWarmUp.class);
+
+  private static final String FEIGN_CLIENT_ANNOTATION = "org.springframework.cloud.openfeign.FeignClient";
+
+  private final DiscoveryBootstrapProperties discoveryProperties;
+
+  private final DiscoveryClient discoveryClient;
+
+  private final Set<String> warmUpServices = new LinkedHashSet<>();
+
+  private volatile ApplicationContext applicationContext;
+
+  private volatile boolean started = false;
+
+  private volatile boolean finished = false;
+
+  private volatile long readinessDeadline = Long.MAX_VALUE;
+
+  private volatile boolean timedOut = false;
+
+  public ServiceCombDiscoveryWarmUp(DiscoveryBootstrapProperties discoveryProperties,
+      DiscoveryClient discoveryClient) {
+    this.discoveryProperties = discoveryProperties;
+    this.discoveryClient = discoveryClient;
+    EventManager.getEventBus().register(this);
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (discoveryProperties.getWarmUpServices() != null) {
+      discoveryProperties.getWarmUpServices().stream().filter(StringUtils::isNotEmpty)
+          .forEach(warmUpServices::add);
+    }
+    if (discoveryProperties.isWarmUpFeignClients()) {
+      warmUpServices.addAll(findFeignClientServices());
+    }
+    if (warmUpServices.isEmpty()) {
+      finished = true;
+    }
+    readinessDeadline = System.currentTimeMillis() + discoveryProperties.getWarmUpTimeout();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<String> findFeignClientServices() {
+    Set<String> result = new LinkedHashSet<>();
+    if (!ClassUtils.isPresent(FEIGN_CLIENT_ANNOTATION, null)) {
+      return result;
+    }
+    try {
+      Class<? extends Annotation> feignClient = (Class<? extends Annotation>) ClassUtils
+          .forName(FEIGN_CLIENT_ANNOTATION, null);
+      for (String beanName : applicationContext.getBeanNamesForAnnotation(feignClient)) {
+        Annotation annotation = applicationContext.findAnnotationOnBean(beanName, feignClient);
+        if (annotation == null) {
+          continue;
+        }
+        Map<String, Object> attributes = AnnotationUtils.getAnnotationAttributes(annotation);
+        // clients with fixed url do not use discovery
+        if (StringUtils.isNotEmpty((String) attributes.get("url"))) {
+          continue;
+        }
+        String name = (String) attributes.get("name");
+        if (StringUtils.isEmpty(name)) {
+          name = (String) attributes.get("value");
+        }
+        if (StringUtils.isNotEmpty(name)) {
+          result.add(applicationContext.getEnvironment().resolvePlaceholders(name));
+        }
+      }
+    } catch (ClassNotFoundException | LinkageError e) {
+      LOGGER.warn("can not find feign clients for warm up, {}", e.getMessage());
+    }
+    return result;
+  }
+
+  @Subscribe
+  public void onHeartBeatEvent(HeartBeatEvent event) {
+    if (!event.isSuccess() || started) {
+      return;
+    }
+    synchronized (this) {
+      if (started) {
+        return;
+      }
+      started = true;
+    }
+    if (warmUpServices.isEmpty()) {
+      return;
+    }
+    // do not block heart beat thread
+    ExecutorService executorService = Executors.newSingleThreadExecutor(t -> new Thread(t, "discovery-warm-up"));
+    executorService.execute(this::warmUp);
+    executorService.shutdown();
+  }
+
+  private void warmUp() {
+    long begin = System.currentTimeMillis();
+    for (String service : warmUpServices) {
+      try {
+        LOGGER.info("warm up service {}, found {} instances.", service,
+            discoveryClient.getInstances(service).size());
+      } catch (Exception e) {
+        LOGGER.warn("warm up service {} failed, {}", service, e.getMessage());
+      }
+    }
+    LOGGER.info("warm up {} services finished in {} ms.", warmUpServices.size(),
+        System.currentTimeMillis() - begin);
+    finished = true;
+  }
+
+  public boolean isFinished() {
+    return finished;
+  }
+
+  @Override
+  public boolean isReady() {
+    if (finished || timedOut) {
+      return true;
+    }
+    if (System.currentTimeMillis() < readinessDeadline) {
+      return false;
+    }
+    timedOut = true;
+    LOGGER.warn("warm up is not finished in {} ms, accept traffic.", discoveryProperties.getWarmUpTimeout());
+    return true;
+  }
+
+  @Override
+  public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+    this.applicationContext = applicationContext;
+  }
+}
@@ -0,0 +1,43 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery.discovery;
+
+import java.util.Set;
+
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+
+/**
+ * HeartbeatEvent carrying the services whose instances changed, listeners can refresh only these services.
+ */
+public class ServiceCombHeartbeatEvent extends HeartbeatEvent {
+  private static final long serialVersionUID = -1L;
+
+  private final Set<String> changedServices;
+
+  public ServiceCombHeartbeatEvent(Object source, Object state, Set<String> changedServices) {
+    super(source, state);
+    this.changedServices = changedServices;
+  }
+
+  /**
+   * @return service ids in the same format as {@link ServiceCombDiscoveryClient#getServices()}
+   */
+  public Set<String> getChangedServices() {
+    return changedServices;
+  }
+}
@@ -0,0 +1,322 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery.registry;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.apache.servicecomb.service.center.client.RegistrationEvents.MicroserviceInstanceRegistrationEvent;
+import org.apache.servicecomb.service.center.client.RegistrationEvents.MicroserviceRegistrationEvent;
+import org.apache.servicecomb.service.center.client.ServiceCenterClient;
+import org.apache.servicecomb.service.center.client.ServiceCenterRegistration;
+import org.apache.servicecomb.service.center.client.model.Microservice;
+import org.apache.servicecomb.service.center.client.model.RegisteredMicroserviceResponse;
+import org.apache.servicecomb.service.center.client.model.SchemaInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.Subscribe;
+import com.huaweicloud.common.event.EventManager;
+import com.huaweicloud.common.schema.ServiceCombSwaggerHandler;
+import com.huaweicloud.common.transport.DiscoveryBootstrapProperties;
+import com.huaweicloud.servicecomb.discovery.ReadinessGate;
+
+/**
+ * Register the microservice in background, so that application startup does not wait for service center
+ * queries or schema generation.
+ *
+ * Service center requires schema ids to be declared when the microservice is registered. For an already
+ * registered microservice, ids registered before are reused, so instance registration does not wait for
+ * schema generation, and schemas are generated after the microservice is registered. A microservice not
+ * registered yet has no known ids, so its schemas are generated in background before registration starts and
+ * uploaded by the registration task; its instance is registered after generation. Generated schemas are
+ * always given to the registration task, so that they are registered again if service center loses the
+ * microservice.
+ *
+ * The registration task never changes schemas of an already registered microservice. When
+ * updateRegisteredSchemas is set, schemas with summary different from service center are uploaded in
+ * background, both for asynchronous registration and for schemas generated synchronously, see
+ * {@link #prepareUpdate(ServiceCombRegistration, List)}.
+ *
+ * When schemaRegistrationAsync and schemaReadinessRequired are set, readiness is refused until schemas are
+ * uploaded, failed or schemaReadinessTimeout passed.
+ */
+public class AsyncSchemaRegistration implements ReadinessGate {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncSchemaRegistration.class);
+
+  private static final int MAX_UPLOAD_ATTEMPTS = 3;
+
+  public enum State {
+    NOT_STARTED,
+    GENERATING,
+    UPLOADING,
+    FINISHED,
+    FAILED
+  }
+
+  private final DiscoveryBootstrapProperties discoveryProperties;
+
+  private final ServiceCenterClient serviceCenterClient;
+
+  private final SchemaUploader schemaUploader;
+
+  // generate and upload schemas, thread exits when idle
+  private final ThreadPoolExecutor executor;
+
+  private final AtomicBoolean started = new AtomicBoolean(false);
+
+  private volatile State state = State.NOT_STARTED;
+
+  private volatile ServiceCombRegistration registration;
+
+  private volatile ServiceCombSwaggerHandler swaggerHandler;
+
+  private volatile ServiceCenterRegistration serviceCenterRegistration;
+
+  // schema ids of already registered microservice, null if generated before registration
+  private volatile List<String> registeredSchemaIds;
+
+  // schemas generated synchronously, compared with service center after instance is registered
+  private volatile List<SchemaInfo> schemasToUpdate;
+
+  private volatile long readinessDeadline = Long.MAX_VALUE;
+
+  private volatile boolean readinessReleased = false;
+
+  private boolean stopped = false;
+
+  public AsyncSchemaRegistration(DiscoveryBootstrapProperties discoveryProperties,
+      ServiceCenterClient serviceCenterClient) {
+    this.discoveryProperties = discoveryProperties;
+    this.serviceCenterClient = serviceCenterClient;
+    this.schemaUploader = new SchemaUploader(serviceCenterClient, MAX_UPLOAD_ATTEMPTS);
+    this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+      Thread thread = new Thread(r, "schema-registration");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * declare schema ids and start registration in background, instead of calling
+   * {@link ServiceCenterRegistration#startRegistration()} by caller.
+   */
+  public void start(ServiceCombRegistration registration, ServiceCombSwaggerHandler swaggerHandler,
+      ServiceCenterRegistration serviceCenterRegistration) {
+    this.registration = registration;
+    this.swaggerHandler = swaggerHandler;
+    this.serviceCenterRegistration = serviceCenterRegistration;
+    this.readinessDeadline = System.currentTimeMillis() + discoveryProperties.getSchemaReadinessTimeout();
+    EventManager.register(this);
+    executor.execute(this::declareAndRegister);
+  }
+
+  /**
+   * registration is not started after stopped, called before {@link ServiceCenterRegistration#stop()}.
+   */
+  public synchronized void stop() {
+    stopped = true;
+  }
+
+  private void declareAndRegister() {
+    Microservice microservice = registration.getMicroservice();
+    registeredSchemaIds = queryRegisteredSchemaIds(microservice);
+    if (registeredSchemaIds != null) {
+      microservice.setSchemas(registeredSchemaIds);
+    } else {
+      generateBeforeRegistration(microservice);
+    }
+    startRegistration();
+  }
+
+  private synchronized void startRegistration() {
+    if (!stopped) {
+      serviceCenterRegistration.startRegistration();
+    }
+  }
+
+  private void generateBeforeRegistration(Microservice microservice) {
+    LOGGER.info("microservice is not registered, generate schemas before registration.");
+    try {
+      state = State.GENERATING;
+      List<SchemaInfo> schemas = generate(microservice);
+      microservice.setSchemas(schemas.stream().map(SchemaInfo::getSchemaId).collect(Collectors.toList()));
+      serviceCenterRegistration.setSchemaInfos(schemas);
+      // uploaded by registration task before instance is registered
+      state = State.UPLOADING;
+    } catch (RuntimeException e) {
+      LOGGER.error("generate schemas failed.", e);
+      state = State.FAILED;
+    }
+  }
+
+  /**
+   * called before registration starts when schemas are generated synchronously and updateRegisteredSchemas
+   * is set. A new microservice already has its schemas uploaded by registration task when instance is
+   * registered, so comparing finds nothing to upload.
+   */
+  public void prepareUpdate(ServiceCombRegistration registration, List<SchemaInfo> schemas) {
+    this.registration = registration;
+    this.schemasToUpdate = schemas;
+    EventManager.register(this);
+  }
+
+  private List<String> queryRegisteredSchemaIds(Microservice microservice) {
+    try {
+      RegisteredMicroserviceResponse response = serviceCenterClient.queryServiceId(microservice);
+      if (response != null) {
+        List<String> schemaIds = serviceCenterClient.getMicroserviceByServiceId(response.getServiceId())
+            .getSchemas();
+        if (schemaIds != null && !schemaIds.isEmpty()) {
+          return schemaIds;
+        }
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("query registered schemas failed, {}", e.getMessage());
+    }
+    return null;
+  }
+
+  private List<SchemaInfo> generate(Microservice microservice) {
+    swaggerHandler.init(microservice.getAppId(), microservice.getServiceName());
+    Map<String, String> contents = swaggerHandler.getSchemasMap();
+    Map<String, String> summaries = swaggerHandler.getSchemasSummaryMap();
+    return swaggerHandler.getSchemaIds().stream()
+        .map(id -> new SchemaInfo(id, contents.get(id), summaries.get(id)))
+        .collect(Collectors.toList());
+  }
+
+  @Subscribe
+  public void onMicroserviceRegistrationEvent(MicroserviceRegistrationEvent event) {
+    if (!event.isSuccess() || registeredSchemaIds == null || !started.compareAndSet(false, true)) {
+      return;
+    }
+    // do not block registration thread, runs after declareAndRegister
+    executor.execute(this::generateAndUpload);
+  }
+
+  @Subscribe
+  public void onMicroserviceInstanceRegistrationEvent(MicroserviceInstanceRegistrationEvent event) {
+    if (!event.isSuccess()) {
+      return;
+    }
+    List<SchemaInfo> schemas = schemasToUpdate;
+    if (schemas != null) {
+      if (started.compareAndSet(false, true)) {
+        executor.execute(() -> update(schemas));
+      }
+      return;
+    }
+    // schemas generated before registration are uploaded before instance registration
+    if (registeredSchemaIds == null && state == State.UPLOADING) {
+      state = State.FINISHED;
+    }
+  }
+
+  private void update(List<SchemaInfo> schemas) {
+    state = State.UPLOADING;
+    boolean success = uploadChanged(registration.getMicroservice().getServiceId(), schemas);
+    state = success ? State.FINISHED : State.FAILED;
+  }
+
+  // only upload schemas changed, service center may reject them in production environment
+  private boolean uploadChanged(String serviceId, List<SchemaInfo> schemas) {
+    List<SchemaInfo> changed = schemaUploader.changedSchemas(serviceId, schemas);
+    if (changed.isEmpty()) {
+      return true;
+    }
+    LOGGER.info("{} of {} schemas changed, upload them.", changed.size(), schemas.size());
+    if (!schemaUploader.upload(serviceId, changed)) {
+      LOGGER.warn("update schemas failed, service center may not allow changing schemas of a registered"
+          + " microservice. Change the microservice version to register new schemas.");
+      return false;
+    }
+    return true;
+  }
+
+  private void generateAndUpload() {
+    long begin = System.currentTimeMillis();
+    Microservice microservice = registration.getMicroservice();
+    try {
+      state = State.GENERATING;
+      List<SchemaInfo> schemas = generate(microservice);
+      serviceCenterRegistration.setSchemaInfos(schemas);
+
+      Set<String> declared = new HashSet<>(registeredSchemaIds);
+      if (!declared.equals(schemas.stream().map(SchemaInfo::getSchemaId).collect(Collectors.toSet()))) {
+        LOGGER.warn("Service has already registered, but schema ids not equal. Change the microservice version"
+            + " or delete the old microservice info and try again.");
+      }
+      if (!discoveryProperties.isUpdateRegisteredSchemas()) {
+        LOGGER.info("generated {} schemas in {} ms.", schemas.size(), System.currentTimeMillis() - begin);
+        state = State.FINISHED;
+        return;
+      }
+      // service center rejects schemas not declared when registered
+      List<SchemaInfo> toUpload = schemas.stream()
+          .filter(schema -> declared.contains(schema.getSchemaId()))
+          .collect(Collectors.toList());
+
+      state = State.UPLOADING;
+      if (!uploadChanged(microservice.getServiceId(), toUpload)) {
+        state = State.FAILED;
+        return;
+      }
+      LOGGER.info("generated and updated {} schemas in {} ms.", schemas.size(),
+          System.currentTimeMillis() - begin);
+      state = State.FINISHED;
+    } catch (RuntimeException e) {
+      LOGGER.error("register schemas failed.", e);
+      state = State.FAILED;
+    }
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  // consumers need contracts of this service, refuse traffic until schemas are uploaded.
+  @Override
+  public boolean isReady() {
+    if (!discoveryProperties.isSchemaRegistrationAsync() || !discoveryProperties.isSchemaReadinessRequired()
+        || state == State.FINISHED || readinessReleased) {
+      return true;
+    }
+    if (state == State.FAILED) {
+      // schemas are uploaded again when microservice is registered again, do not refuse traffic forever
+      LOGGER.warn("register schemas failed, accept traffic.");
+      readinessReleased = true;
+      return true;
+    }
+    if (System.currentTimeMillis() < readinessDeadline) {
+      return false;
+    }
+    readinessReleased = true;
+    LOGGER.warn("schemas are not registered in {} ms, accept traffic.",
+        discoveryProperties.getSchemaReadinessTimeout());
+    return true;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery.registry;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.apache.servicecomb.service.center.client.ServiceCenterClient;
+import org.apache.servicecomb.service.center.client.model.CreateSchemaRequest;
+import org.apache.servicecomb.service.center.client.model.SchemaInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Upload schemas of a registered microservice, skipping schemas whose summary in service center is the
+ * same as local one.
+ */
+class SchemaUploader {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SchemaUploader.class);
+
+  private static final long UPLOAD_RETRY_INTERVAL = 1000;
+
+  private final ServiceCenterClient serviceCenterClient;
+
+  private final int maxAttempts;
+
+  SchemaUploader(ServiceCenterClient serviceCenterClient, int maxAttempts) {
+    this.serviceCenterClient = serviceCenterClient;
+    this.maxAttempts = maxAttempts;
+  }
+
+  /**
+   * @return schemas not registered or with different summary, all schemas if registered summaries can not
+   * be queried
+   */
+  List<SchemaInfo> changedSchemas(String serviceId, List<SchemaInfo> schemas) {
+    Map<String, String> registered = new HashMap<>();
+    try {
+      List<SchemaInfo> registeredSchemas = serviceCenterClient.getServiceSchemasList(serviceId, false);
+      if (registeredSchemas != null) {
+        registeredSchemas.forEach(schema -> registered.put(schema.getSchemaId(), schema.getSummary()));
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("query registered schema summaries failed, {}", e.getMessage());
+      return schemas;
+    }
+    return schemas.stream()
+        .filter(schema -> !Objects.equals(registered.get(schema.getSchemaId()), schema.getSummary()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @return false if any schema failed to upload
+   */
+  boolean upload(String serviceId, List<SchemaInfo> schemas) {
+    for (SchemaInfo schema : schemas) {
+      CreateSchemaRequest request = new CreateSchemaRequest();
+      request.setSchema(schema.getSchema());
+      request.setSummary(schema.getSummary());
+      if (!upload(serviceId, schema.getSchemaId(), request)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean upload(String serviceId, String schemaId, CreateSchemaRequest request) {
+    for (int i = 1; i <= maxAttempts; i++) {
+      try {
+        if (serviceCenterClient.registerSchema(serviceId, schemaId, request)) {
+          return true;
+        }
+      } catch (RuntimeException e) {
+        LOGGER.warn("register schema {} failed, attempt {}, {}", schemaId, i, e.getMessage());
+      }
+      if (i == maxAttempts) {
+        break;
+      }
+      try {
+        Thread.sleep(UPLOAD_RETRY_INTERVAL * i);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    LOGGER.error("register schema {} failed after {} attempts.", schemaId, maxAttempts);
+    return false;
+  }
+}
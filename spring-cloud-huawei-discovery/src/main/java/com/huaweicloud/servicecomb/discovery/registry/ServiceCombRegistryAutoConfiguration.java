@@ -20,9 +20,11 @@ package com.huaweicloud.servicecomb.discovery.registry;
 
 import org.apache.servicecomb.service.center.client.ServiceCenterClient;
 import org.apache.servicecomb.service.center.client.ServiceCenterWatch;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.serviceregistry.AutoServiceRegistrationAutoConfiguration;
@@ -54,9 +56,19 @@ public class ServiceCombRegistryAutoConfiguration {
   public ServiceCombServiceRegistry serviceCombServiceRegistry(
       DiscoveryBootstrapProperties discoveryBootstrapProperties,
       ServiceCenterClient serviceCenterClient,
-      ServiceCenterWatch serviceCenterWatch) {
+      ServiceCenterWatch serviceCenterWatch,
+      ObjectProvider<AsyncSchemaRegistration> asyncSchemaRegistration) {
     return new ServiceCombServiceRegistry(
-        discoveryBootstrapProperties, serviceCenterClient, serviceCenterWatch);
+        discoveryBootstrapProperties, serviceCenterClient, serviceCenterWatch,
+        asyncSchemaRegistration.getIfAvailable());
+  }
+
+  @Bean
+  @ConditionalOnExpression("${spring.cloud.servicecomb.discovery.schemaRegistrationAsync:false}"
+      + " or ${spring.cloud.servicecomb.discovery.updateRegisteredSchemas:false}")
+  public AsyncSchemaRegistration asyncSchemaRegistration(DiscoveryBootstrapProperties discoveryBootstrapProperties,
+      ServiceCenterClient serviceCenterClient) {
+    return new AsyncSchemaRegistration(discoveryBootstrapProperties, serviceCenterClient);
   }
 
   @Bean
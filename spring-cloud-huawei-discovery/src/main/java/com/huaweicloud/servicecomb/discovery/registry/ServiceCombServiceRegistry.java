@@ -65,8 +65,17 @@ public class ServiceCombServiceRegistry implements ServiceRegistry<ServiceCombRe
 
   private ApplicationContext applicationContext;
 
+  private final AsyncSchemaRegistration asyncSchemaRegistration;
+
   public ServiceCombServiceRegistry(DiscoveryBootstrapProperties discoveryBootstrapProperties,
       ServiceCenterClient serviceCenterClient, @Autowired(required = false) ServiceCenterWatch watch) {
+    this(discoveryBootstrapProperties, serviceCenterClient, watch, null);
+  }
+
+  public ServiceCombServiceRegistry(DiscoveryBootstrapProperties discoveryBootstrapProperties,
+      ServiceCenterClient serviceCenterClient, ServiceCenterWatch watch,
+      AsyncSchemaRegistration asyncSchemaRegistration) {
+    this.asyncSchemaRegistration = asyncSchemaRegistration;
     this.serviceCenterClient = serviceCenterClient;
     this.watch = watch;
     this.discoveryBootstrapProperties = discoveryBootstrapProperties;
@@ -92,16 +101,23 @@ public class ServiceCombServiceRegistry implements ServiceRegistry<ServiceCombRe
     serviceCenterRegistration.setHeartBeatInterval(discoveryBootstrapProperties.getHealthCheckInterval());
     serviceCenterRegistration.setHeartBeatRequestTimeout(discoveryBootstrapProperties.getHealthCheckRequestTimeout());
 
-    addSchemaInfo(registration);
-
-    serviceCenterRegistration.startRegistration();
+    if (!addSchemaInfo(registration)) {
+      serviceCenterRegistration.startRegistration();
+    }
   }
 
-  private void addSchemaInfo(ServiceCombRegistration registration) {
+  /**
+   * @return true if registration is started in background by asynchronous schema registration
+   */
+  private boolean addSchemaInfo(ServiceCombRegistration registration) {
 
     if (this.applicationContext.containsBean(SWAGGER_BEAN_NAME)) {
       ServiceCombSwaggerHandler serviceCombSwaggerHandler = this.applicationContext
           .getBean(SWAGGER_BEAN_NAME, ServiceCombSwaggerHandler.class);
+      if (asyncSchemaRegistration != null && discoveryBootstrapProperties.isSchemaRegistrationAsync()) {
+        asyncSchemaRegistration.start(registration, serviceCombSwaggerHandler, serviceCenterRegistration);
+        return true;
+      }
       serviceCombSwaggerHandler
           .init(registration.getMicroservice().getAppId(), registration.getMicroservice().getServiceName());
       registration.getMicroservice().setSchemas(serviceCombSwaggerHandler.getSchemaIds());
@@ -112,12 +128,19 @@ public class ServiceCombServiceRegistry implements ServiceRegistry<ServiceCombRe
           .map(id -> new SchemaInfo(id, contents.get(id), summary.get(id)))
           .collect(Collectors.toList());
       serviceCenterRegistration.setSchemaInfos(schemaInfos);
+      if (asyncSchemaRegistration != null && discoveryBootstrapProperties.isUpdateRegisteredSchemas()) {
+        asyncSchemaRegistration.prepareUpdate(registration, schemaInfos);
+      }
     }
+    return false;
   }
 
   @Override
   public void deregister(ServiceCombRegistration registration) {
     if (serviceCenterRegistration != null) {
+      if (asyncSchemaRegistration != null) {
+        asyncSchemaRegistration.stop();
+      }
       serviceCenterRegistration.stop();
       if (!StringUtils.isEmpty(registration.getMicroserviceInstance().getInstanceId())) {
         try {
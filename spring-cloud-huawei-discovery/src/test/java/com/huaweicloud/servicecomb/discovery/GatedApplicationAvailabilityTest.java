@@ -0,0 +1,56 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+
+public class GatedApplicationAvailabilityTest {
+  @Test
+  public void testRefuseUntilGatesReady() {
+    AtomicBoolean ready = new AtomicBoolean(false);
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("gate", (ReadinessGate) ready::get);
+    GatedApplicationAvailability availability = new GatedApplicationAvailability(
+        beanFactory.getBeanProvider(ReadinessGate.class));
+
+    Assert.assertEquals(ReadinessState.REFUSING_TRAFFIC, availability.getReadinessState());
+    availability.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+    availability.onApplicationEvent(new AvailabilityChangeEvent<>(this, LivenessState.CORRECT));
+    Assert.assertEquals(ReadinessState.REFUSING_TRAFFIC, availability.getReadinessState());
+    Assert.assertEquals(ReadinessState.REFUSING_TRAFFIC, availability.getState(ReadinessState.class));
+    Assert.assertEquals(LivenessState.CORRECT, availability.getLivenessState());
+
+    ready.set(true);
+    Assert.assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+  }
+
+  @Test
+  public void testNoGates() {
+    GatedApplicationAvailability availability = new GatedApplicationAvailability(
+        new StaticListableBeanFactory().getBeanProvider(ReadinessGate.class));
+    availability.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+    Assert.assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+  }
+}
@@ -0,0 +1,57 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery.discovery;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EndpointLatencyProberTest {
+  private final Map<String, Long> rtts = new HashMap<>();
+
+  private final EndpointLatencyProber prober = new EndpointLatencyProber(1000, 2.0, 60000) {
+    @Override
+    protected long probe(String endpoint) {
+      return rtts.get(endpoint);
+    }
+  };
+
+  @Test
+  public void testRank() {
+    List<String> endpoints = Arrays.asList("rest://a:30100", "rest://b:30100", "rest://c:30100");
+    rtts.put("rest://a:30100", 10L);
+    rtts.put("rest://b:30100", 5L);
+    rtts.put("rest://c:30100", -1L);
+    List<List<String>> result = prober.rank(endpoints);
+    Assert.assertEquals(Arrays.asList("rest://b:30100", "rest://a:30100"), result.get(0));
+    Assert.assertEquals(Arrays.asList("rest://c:30100"), result.get(1));
+
+    // slow endpoint is isolated and not probed again before back-off expires
+    rtts.put("rest://a:30100", 100L);
+    rtts.put("rest://c:30100", 1L);
+    prober.rank(endpoints);
+    rtts.put("rest://a:30100", 5L);
+    result = prober.rank(endpoints);
+    Assert.assertEquals(Arrays.asList("rest://b:30100"), result.get(0));
+    Assert.assertEquals(Arrays.asList("rest://a:30100", "rest://c:30100"), result.get(1));
+  }
+}
@@ -0,0 +1,73 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery.discovery;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.servicecomb.service.center.client.model.MicroserviceInstance;
+import org.apache.servicecomb.service.center.client.model.MicroserviceInstanceStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.huaweicloud.servicecomb.discovery.client.model.DiscoveryConstants;
+
+public class InstanceCacheSnapshotTest {
+  @Test
+  public void testWriteAndLoad() throws Exception {
+    Path file = Files.createTempDirectory("snapshot").resolve("test.instances");
+
+    MicroserviceInstance instance = new MicroserviceInstance();
+    instance.setInstanceId("i1");
+    instance.setServiceId("s1");
+    instance.setStatus(MicroserviceInstanceStatus.UP);
+    instance.setEndpoints(Arrays.asList("rest://127.0.0.1:8080"));
+    Map<String, String> properties = new HashMap<>();
+    properties.put("tag", "v1");
+    instance.setProperties(properties);
+
+    InstanceCacheSnapshot writer = new InstanceCacheSnapshot(file);
+    Assert.assertEquals(-1, writer.getSnapshotAge());
+    writer.update("app", "provider", Collections.singletonList(instance));
+    for (int i = 0; i < 50 && !Files.exists(file); i++) {
+      Thread.sleep(100);
+    }
+    Assert.assertTrue(Files.exists(file));
+
+    InstanceCacheSnapshot reader = new InstanceCacheSnapshot(file);
+    reader.load();
+    Assert.assertTrue(reader.getSnapshotAge() >= 0);
+    Assert.assertNull(reader.getStaleInstances("app", "other"));
+    List<MicroserviceInstance> loaded = reader.getStaleInstances("app", "provider");
+    Assert.assertEquals(1, loaded.size());
+    Assert.assertEquals("i1", loaded.get(0).getInstanceId());
+    Assert.assertEquals("provider", loaded.get(0).getServiceName());
+    Assert.assertEquals(MicroserviceInstanceStatus.UP, loaded.get(0).getStatus());
+    Assert.assertEquals("rest://127.0.0.1:8080", loaded.get(0).getEndpoints().get(0));
+    Assert.assertEquals("v1", loaded.get(0).getProperties().get("tag"));
+    Assert.assertEquals("true", loaded.get(0).getProperties().get(DiscoveryConstants.INSTANCE_STALE));
+
+    reader.update("app", "provider", Collections.emptyList());
+    Assert.assertNull(reader.getStaleInstances("app", "provider"));
+  }
+}
@@ -0,0 +1,79 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+package com.huaweicloud.servicecomb.discovery.discovery;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.servicecomb.service.center.client.DiscoveryEvents.InstanceChangedEvent;
+import org.apache.servicecomb.service.center.client.model.MicroserviceInstance;
+import org.apache.servicecomb.service.center.client.model.MicroserviceInstanceStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.huaweicloud.common.transport.DiscoveryBootstrapProperties;
+
+public class InstancePreConnectorTest {
+  private static MicroserviceInstance instance(String id, MicroserviceInstanceStatus status) {
+    MicroserviceInstance instance = new MicroserviceInstance();
+    instance.setInstanceId(id);
+    instance.setStatus(status);
+    instance.setEndpoints(Collections.singletonList("rest://" + id + ":8080?sslEnabled=false"));
+    return instance;
+  }
+
+  private static InstancePreConnector create() {
+    DiscoveryBootstrapProperties properties = new DiscoveryBootstrapProperties();
+    properties.setPreConnectPath("/health");
+    return new InstancePreConnector(properties);
+  }
+
+  @Test
+  public void testOnlyNewUpInstances() {
+    InstancePreConnector preConnector = create();
+
+    Assert.assertEquals(Arrays.asList("http://a:8080", "http://b:8080"), preConnector.newAddresses(
+        new InstanceChangedEvent("app", "service", Arrays.asList(instance("a", MicroserviceInstanceStatus.UP),
+            instance("b", MicroserviceInstanceStatus.UP), instance("c", MicroserviceInstanceStatus.DOWN)))));
+
+    // a is known, c is UP now, d is new
+    Assert.assertEquals(Arrays.asList("http://c:8080", "http://d:8080"), preConnector.newAddresses(
+        new InstanceChangedEvent("app", "service", Arrays.asList(instance("a", MicroserviceInstanceStatus.UP),
+            instance("c", MicroserviceInstanceStatus.UP), instance("d", MicroserviceInstanceStatus.UP)))));
+
+    // b was removed, it is new when coming back
+    Assert.assertEquals(Collections.singletonList("http://b:8080"), preConnector.newAddresses(
+        new InstanceChangedEvent("app", "service", Collections.singletonList(
+            instance("b", MicroserviceInstanceStatus.UP)))));
+  }
+
+  @Test
+  public void testInstancesOfServicesKnownSeparately() {
+    InstancePreConnector preConnector = create();
+    preConnector.newAddresses(new InstanceChangedEvent("app", "service", Collections.singletonList(
+        instance("a", MicroserviceInstanceStatus.UP))));
+
+    Assert.assertEquals(Collections.singletonList("http://a:8080"), preConnector.newAddresses(
+        new InstanceChangedEvent("app", "other", Collections.singletonList(
+            instance("a", MicroserviceInstanceStatus.UP)))));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPathRequired() {
+    new InstancePreConnector(new DiscoveryBootstrapProperties());
+  }
+}
@@ -0,0 +1,91 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+package com.huaweicloud.servicecomb.discovery.discovery;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.servicecomb.service.center.client.DiscoveryEvents.InstanceChangedEvent;
+import org.apache.servicecomb.service.center.client.ServiceCenterClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.huaweicloud.common.transport.DiscoveryBootstrapProperties;
+
+public class ServiceCombDiscoveryClientTest {
+  private static final long WAIT_TIME = 10000;
+
+  private final List<Object> events = new CopyOnWriteArrayList<>();
+
+  private ServiceCombDiscoveryClient create(int window) {
+    DiscoveryBootstrapProperties properties = new DiscoveryBootstrapProperties();
+    properties.setAppName("app");
+    properties.setInstanceChangedEventWindow(window);
+    ServiceCombDiscoveryClient client = new ServiceCombDiscoveryClient(properties, new ServiceCenterClient(null),
+        null);
+    client.setApplicationEventPublisher(events::add);
+    return client;
+  }
+
+  private static InstanceChangedEvent changed(String appName, String serviceName) {
+    return new InstanceChangedEvent(appName, serviceName, Collections.emptyList());
+  }
+
+  @Test
+  public void testChangesInWindowMerged() throws Exception {
+    ServiceCombDiscoveryClient client = create(200);
+    client.onInstanceChangedEvent(changed("app", "a"));
+    client.onInstanceChangedEvent(changed("app", "b"));
+    client.onInstanceChangedEvent(changed("app", "a"));
+    client.onInstanceChangedEvent(changed("other", "c"));
+    Assert.assertTrue(events.isEmpty());
+
+    waitForEvents(1);
+    ServiceCombHeartbeatEvent event = (ServiceCombHeartbeatEvent) events.get(0);
+    Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b", "other.c")), event.getChangedServices());
+
+    // a new window starts after publishing
+    client.onInstanceChangedEvent(changed("app", "d"));
+    waitForEvents(2);
+    Assert.assertEquals(Collections.singleton("d"),
+        ((ServiceCombHeartbeatEvent) events.get(1)).getChangedServices());
+    Assert.assertNotEquals(event.getValue(), ((ServiceCombHeartbeatEvent) events.get(1)).getValue());
+    Thread.sleep(300);
+    Assert.assertEquals(2, events.size());
+  }
+
+  @Test
+  public void testPublishedAtOnceWithoutWindow() {
+    ServiceCombDiscoveryClient client = create(0);
+    client.onInstanceChangedEvent(changed("app", "a"));
+    client.onInstanceChangedEvent(changed("app", "a"));
+
+    Assert.assertEquals(2, events.size());
+    Assert.assertEquals(Collections.singleton("a"), ((ServiceCombHeartbeatEvent) events.get(0)).getChangedServices());
+  }
+
+  private void waitForEvents(int count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_TIME;
+    while (events.size() < count) {
+      Assert.assertTrue("events not published in time", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+}
@@ -0,0 +1,247 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+package com.huaweicloud.servicecomb.discovery.registry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.apache.servicecomb.service.center.client.RegistrationEvents.MicroserviceInstanceRegistrationEvent;
+import org.apache.servicecomb.service.center.client.RegistrationEvents.MicroserviceRegistrationEvent;
+import org.apache.servicecomb.service.center.client.ServiceCenterClient;
+import org.apache.servicecomb.service.center.client.ServiceCenterRegistration;
+import org.apache.servicecomb.service.center.client.model.CreateSchemaRequest;
+import org.apache.servicecomb.service.center.client.model.Microservice;
+import org.apache.servicecomb.service.center.client.model.RegisteredMicroserviceResponse;
+import org.apache.servicecomb.service.center.client.model.SchemaInfo;
+import org.apache.servicecomb.service.center.client.model.ServiceCenterConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.eventbus.EventBus;
+import com.huaweicloud.common.schema.ServiceCombSwaggerHandler;
+import com.huaweicloud.common.transport.DiscoveryBootstrapProperties;
+import com.huaweicloud.servicecomb.discovery.discovery.DiscoveryProperties;
+import com.huaweicloud.servicecomb.discovery.registry.AsyncSchemaRegistration.State;
+
+public class AsyncSchemaRegistrationTest {
+  private static final long WAIT_TIME = 10000;
+
+  private final List<String> uploaded = new CopyOnWriteArrayList<>();
+
+  private final CountDownLatch registrationStarted = new CountDownLatch(1);
+
+  private final CountDownLatch generationAllowed = new CountDownLatch(1);
+
+  private final DiscoveryBootstrapProperties properties = new DiscoveryBootstrapProperties();
+
+  private final ServiceCombRegistration registration = new ServiceCombRegistration(properties,
+      new DiscoveryProperties(), new TagsProperties());
+
+  private final ServiceCenterRegistration serviceCenterRegistration = new ServiceCenterRegistration(null,
+      new ServiceCenterConfiguration(), new EventBus()) {
+    @Override
+    public void startRegistration() {
+      registrationStarted.countDown();
+    }
+  };
+
+  // registered schema ids, null if microservice is not registered
+  private List<String> registeredSchemaIds;
+
+  private boolean generationFails;
+
+  public AsyncSchemaRegistrationTest() {
+    properties.setSchemaRegistrationAsync(true);
+    properties.setSchemaReadinessRequired(true);
+    properties.setUpdateRegisteredSchemas(true);
+  }
+
+  private AsyncSchemaRegistration create() {
+    ServiceCenterClient client = new ServiceCenterClient(null) {
+      @Override
+      public RegisteredMicroserviceResponse queryServiceId(Microservice microservice) {
+        if (registeredSchemaIds == null) {
+          return null;
+        }
+        RegisteredMicroserviceResponse response = new RegisteredMicroserviceResponse();
+        response.setServiceId("id");
+        return response;
+      }
+
+      @Override
+      public Microservice getMicroserviceByServiceId(String serviceId) {
+        Microservice microservice = new Microservice();
+        microservice.setSchemas(registeredSchemaIds);
+        return microservice;
+      }
+
+      @Override
+      public List<SchemaInfo> getServiceSchemasList(String serviceId, boolean withSchema) {
+        return Arrays.asList(new SchemaInfo("a", null, "summary-a"), new SchemaInfo("b", null, "old"));
+      }
+
+      @Override
+      public boolean registerSchema(String serviceId, String schemaId, CreateSchemaRequest request) {
+        uploaded.add(schemaId);
+        return true;
+      }
+    };
+    return new AsyncSchemaRegistration(properties, client);
+  }
+
+  private void start(AsyncSchemaRegistration schemaRegistration) {
+    schemaRegistration.start(registration, new SwaggerHandler(), serviceCenterRegistration);
+  }
+
+  @Test
+  public void testNewMicroserviceGeneratedBeforeRegistration() throws Exception {
+    AsyncSchemaRegistration schemaRegistration = create();
+    Assert.assertEquals(State.NOT_STARTED, schemaRegistration.getState());
+
+    start(schemaRegistration);
+    waitFor(() -> schemaRegistration.getState() == State.GENERATING);
+    Assert.assertFalse(schemaRegistration.isReady());
+    Assert.assertEquals(1, registrationStarted.getCount());
+
+    generationAllowed.countDown();
+    Assert.assertTrue(registrationStarted.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(State.UPLOADING, schemaRegistration.getState());
+    Assert.assertEquals(Arrays.asList("a", "b", "c"), registration.getMicroservice().getSchemas());
+    Assert.assertFalse(schemaRegistration.isReady());
+
+    schemaRegistration.onMicroserviceInstanceRegistrationEvent(new MicroserviceInstanceRegistrationEvent(true));
+    Assert.assertEquals(State.FINISHED, schemaRegistration.getState());
+    Assert.assertTrue(schemaRegistration.isReady());
+    // uploaded by registration task
+    Assert.assertTrue(uploaded.isEmpty());
+  }
+
+  @Test
+  public void testRegisteredMicroserviceUploadsDeclaredChangedSchemas() throws Exception {
+    registeredSchemaIds = Arrays.asList("a", "b");
+    generationAllowed.countDown();
+    AsyncSchemaRegistration schemaRegistration = create();
+
+    start(schemaRegistration);
+    Assert.assertTrue(registrationStarted.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+    // registration does not wait for generation
+    Assert.assertEquals(State.NOT_STARTED, schemaRegistration.getState());
+    Assert.assertEquals(registeredSchemaIds, registration.getMicroservice().getSchemas());
+
+    registration.getMicroservice().setServiceId("id");
+    schemaRegistration.onMicroserviceRegistrationEvent(new MicroserviceRegistrationEvent(true));
+    waitFor(() -> schemaRegistration.getState() == State.FINISHED);
+    // a is not changed, c is not declared
+    Assert.assertEquals(Arrays.asList("b"), uploaded);
+  }
+
+  @Test
+  public void testRegisteredSchemasNotUpdatedByDefault() throws Exception {
+    properties.setUpdateRegisteredSchemas(false);
+    registeredSchemaIds = Arrays.asList("a", "b");
+    generationAllowed.countDown();
+    AsyncSchemaRegistration schemaRegistration = create();
+
+    start(schemaRegistration);
+    Assert.assertTrue(registrationStarted.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+    schemaRegistration.onMicroserviceRegistrationEvent(new MicroserviceRegistrationEvent(true));
+    waitFor(() -> schemaRegistration.getState() == State.FINISHED);
+    Assert.assertTrue(uploaded.isEmpty());
+  }
+
+  @Test
+  public void testReadinessReleasedWhenFailed() throws Exception {
+    generationFails = true;
+    generationAllowed.countDown();
+    AsyncSchemaRegistration schemaRegistration = create();
+
+    start(schemaRegistration);
+    Assert.assertTrue(registrationStarted.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(State.FAILED, schemaRegistration.getState());
+    Assert.assertTrue(schemaRegistration.isReady());
+  }
+
+  @Test
+  public void testReadinessReleasedAfterTimeout() throws Exception {
+    properties.setSchemaReadinessTimeout(0);
+    AsyncSchemaRegistration schemaRegistration = create();
+    try {
+      start(schemaRegistration);
+      waitFor(() -> schemaRegistration.getState() == State.GENERATING);
+      Assert.assertTrue(schemaRegistration.isReady());
+    } finally {
+      generationAllowed.countDown();
+    }
+  }
+
+  @Test
+  public void testReadyWhenNotRequired() {
+    properties.setSchemaReadinessRequired(false);
+    AsyncSchemaRegistration schemaRegistration = create();
+    start(schemaRegistration);
+    Assert.assertTrue(schemaRegistration.isReady());
+    generationAllowed.countDown();
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_TIME;
+    while (!condition.getAsBoolean()) {
+      Assert.assertTrue("condition not met in time", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private class SwaggerHandler implements ServiceCombSwaggerHandler {
+    private final List<String> schemaIds = Arrays.asList("a", "b", "c");
+
+    @Override
+    public void init(String appName, String serviceName) {
+      try {
+        generationAllowed.await(WAIT_TIME, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (generationFails) {
+        throw new IllegalStateException("generate failed");
+      }
+    }
+
+    @Override
+    public List<String> getSchemaIds() {
+      return schemaIds;
+    }
+
+    @Override
+    public Map<String, String> getSchemasMap() {
+      return schemaIds.stream().collect(Collectors.toMap(id -> id, id -> "content-" + id));
+    }
+
+    @Override
+    public Map<String, String> getSchemasSummaryMap() {
+      Map<String, String> summaries = new HashMap<>();
+      schemaIds.forEach(id -> summaries.put(id, "summary-" + id));
+      return summaries;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.servicecomb.discovery.registry;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.servicecomb.service.center.client.ServiceCenterClient;
+import org.apache.servicecomb.service.center.client.model.SchemaInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SchemaUploaderTest {
+  @Test
+  public void testChangedSchemas() {
+    ServiceCenterClient client = new ServiceCenterClient(null) {
+      @Override
+      public List<SchemaInfo> getServiceSchemasList(String serviceId, boolean withSchema) {
+        return Arrays.asList(new SchemaInfo("a", null, "s1"), new SchemaInfo("b", null, "s2"));
+      }
+    };
+    List<SchemaInfo> local = Arrays.asList(new SchemaInfo("a", "a", "s1"), new SchemaInfo("b", "b", "changed"),
+        new SchemaInfo("c", "c", "s3"));
+
+    List<SchemaInfo> changed = new SchemaUploader(client, 1).changedSchemas("id", local);
+    Assert.assertEquals(2, changed.size());
+    Assert.assertEquals("b", changed.get(0).getSchemaId());
+    Assert.assertEquals("c", changed.get(1).getSchemaId());
+  }
+}
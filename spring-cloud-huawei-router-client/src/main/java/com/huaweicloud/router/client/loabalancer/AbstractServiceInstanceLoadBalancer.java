@@ -0,0 +1,118 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * This class is adapted from RoundRobinLoadBalancer, sub classes only decide which instance to use.
+ */
+public abstract class AbstractServiceInstanceLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AbstractServiceInstanceLoadBalancer.class);
+
+  protected final String serviceId;
+
+  private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+  private SlowStartWeight slowStartWeight;
+
+  protected AbstractServiceInstanceLoadBalancer(
+      ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider, String serviceId) {
+    this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+    this.serviceId = serviceId;
+  }
+
+  /**
+   * @param slowStartWeight null if slow start is disabled
+   */
+  public void setSlowStartWeight(SlowStartWeight slowStartWeight) {
+    this.slowStartWeight = slowStartWeight;
+  }
+
+  /**
+   * @return weight between 0 and 1 of the instance, less than 1 when the instance is in slow start
+   */
+  protected double weight(ServiceInstance instance, long now) {
+    return slowStartWeight == null ? 1D : slowStartWeight.weight(instance, now);
+  }
+
+  @Override
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public Mono<Response<ServiceInstance>> choose(Request request) {
+    ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+        .getIfAvailable(NoopServiceInstanceListSupplier::new);
+    Mono<List<ServiceInstance>> instances = supplier.get(request).next();
+    if (!requiresAllInstances()) {
+      return instances.map(serviceInstances -> processInstanceResponse(supplier, serviceInstances,
+          serviceInstances, request));
+    }
+    // instances before filtering, cached by the delegate supplier
+    return instances.zipWith(supplier.get().next().defaultIfEmpty(Collections.emptyList()))
+        .map(tuple -> processInstanceResponse(supplier, tuple.getT1(), tuple.getT2(), request));
+  }
+
+  private Response<ServiceInstance> processInstanceResponse(ServiceInstanceListSupplier supplier,
+      List<ServiceInstance> serviceInstances, List<ServiceInstance> allInstances, Request<?> request) {
+    if (serviceInstances.isEmpty()) {
+      LOGGER.warn("No servers available for service: {}", serviceId);
+      return new EmptyResponse();
+    }
+    ServiceInstance instance = select(serviceInstances, allInstances, request);
+    if (supplier instanceof SelectedInstanceCallback) {
+      ((SelectedInstanceCallback) supplier).selectedServiceInstance(instance);
+    }
+    return new DefaultResponse(instance);
+  }
+
+  /**
+   * @return true if {@link #select(List, List, Request)} needs instances before filtering
+   */
+  protected boolean requiresAllInstances() {
+    return false;
+  }
+
+  /**
+   * @param instances not empty instance list
+   * @param allInstances instances before filtering, same as instances if not {@link #requiresAllInstances()}
+   */
+  protected ServiceInstance select(List<ServiceInstance> instances, List<ServiceInstance> allInstances,
+      Request<?> request) {
+    return select(instances, request);
+  }
+
+  /**
+   * @param instances not empty instance list
+   */
+  protected abstract ServiceInstance select(List<ServiceInstance> instances, Request<?> request);
+}
@@ -0,0 +1,249 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Ketama style consistent hash, requests with the same hash key go to the same instance as long as
+ * it is available. Each instance is placed on the ring many times (virtual nodes) to spread keys evenly.
+ *
+ * The ring is built from instances before filtering, which only change when discovery changes, and instances
+ * filtered out for a request are skipped when walking the ring.
+ *
+ * With bounded load enabled, an instance with more than loadFactor times of the average outstanding
+ * requests is skipped and the request goes to the next instance on the ring. Capacity of an instance in slow
+ * start is scaled by its weight.
+ */
+public class ConsistentHashLoadBalancer extends AbstractServiceInstanceLoadBalancer {
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  // each 128 bits hash gives 4 points on the ring
+  private static final int POINTS_PER_HASH = 4;
+
+  private final LoadBalancerStatsRecorder statsRecorder;
+
+  private final String hashHeader;
+
+  private final int hashPathSegment;
+
+  private final int virtualNodes;
+
+  private final double loadFactor;
+
+  private volatile Ring ring = new Ring(Collections.emptySet(), new TreeMap<>());
+
+  /**
+   * @param hashHeader request header used as hash key, path segment is used if empty
+   * @param hashPathSegment index of path segment used as hash key, starts from 0
+   * @param virtualNodes points of each instance on the ring
+   * @param loadFactor bounded load factor, bounded load is disabled if not greater than 1
+   */
+  public ConsistentHashLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+      String serviceId, LoadBalancerStatsRecorder statsRecorder, String hashHeader, int hashPathSegment,
+      int virtualNodes, double loadFactor) {
+    super(serviceInstanceListSupplierProvider, serviceId);
+    this.statsRecorder = statsRecorder;
+    this.hashHeader = hashHeader;
+    this.hashPathSegment = hashPathSegment;
+    this.virtualNodes = Math.max(POINTS_PER_HASH, virtualNodes);
+    this.loadFactor = loadFactor;
+  }
+
+  @Override
+  protected boolean requiresAllInstances() {
+    return true;
+  }
+
+  @Override
+  protected ServiceInstance select(List<ServiceInstance> instances, Request<?> request) {
+    return select(instances, instances, request);
+  }
+
+  @Override
+  protected ServiceInstance select(List<ServiceInstance> instances, List<ServiceInstance> allInstances,
+      Request<?> request) {
+    statsRecorder.retain(allInstances);
+    String hashKey = hashKey(request);
+    if (hashKey == null) {
+      return instances.get(ThreadLocalRandom.current().nextInt(instances.size()));
+    }
+    Ring current = ringOf(allInstances.isEmpty() ? instances : allInstances);
+    Map<String, ServiceInstance> available = new HashMap<>(instances.size() * 4 / 3 + 1);
+    for (ServiceInstance instance : instances) {
+      available.put(LoadBalancerStatsRecorder.instanceKey(instance), instance);
+    }
+    long hash = Integer.toUnsignedLong(HASH_FUNCTION.hashString(hashKey, StandardCharsets.UTF_8).asInt());
+    if (loadFactor <= 1) {
+      for (String candidate : walk(current.points, hash)) {
+        ServiceInstance instance = available.get(candidate);
+        if (instance != null) {
+          return instance;
+        }
+      }
+      // available instances are not on the ring
+      return instances.get(0);
+    }
+    return selectWithBoundedLoad(current, available, hash);
+  }
+
+  private ServiceInstance selectWithBoundedLoad(Ring current, Map<String, ServiceInstance> available,
+      long hash) {
+    long totalActive = 0;
+    for (ServiceInstance instance : available.values()) {
+      totalActive += statsRecorder.getStats(instance).getActiveRequests();
+    }
+    double capacity = Math.ceil(loadFactor * (totalActive + 1) / available.size());
+    ServiceInstance first = null;
+    long now = System.currentTimeMillis();
+    for (String candidate : walk(current.points, hash)) {
+      ServiceInstance instance = available.get(candidate);
+      if (instance == null) {
+        continue;
+      }
+      if (first == null) {
+        first = instance;
+      }
+      if (statsRecorder.getStats(instance).getActiveRequests() < capacity * weight(instance, now)) {
+        return instance;
+      }
+    }
+    return first != null ? first : available.values().iterator().next();
+  }
+
+  private static Iterable<String> walk(NavigableMap<Long, String> points, long hash) {
+    return () -> new Iterator<String>() {
+      private final Iterator<String> tail = points.tailMap(hash, true).values().iterator();
+
+      private final Iterator<String> head = points.headMap(hash, false).values().iterator();
+
+      @Override
+      public boolean hasNext() {
+        return tail.hasNext() || head.hasNext();
+      }
+
+      @Override
+      public String next() {
+        return tail.hasNext() ? tail.next() : head.next();
+      }
+    };
+  }
+
+  private String hashKey(Request<?> request) {
+    if (request == null || !(request.getContext() instanceof DefaultRequestContext)) {
+      return null;
+    }
+    Object clientRequest = ((DefaultRequestContext) request.getContext()).getClientRequest();
+    HttpHeaders headers;
+    URI uri;
+    if (clientRequest instanceof RouterLoadBalancerRequest) {
+      // rest template
+      HttpRequest httpRequest = ((RouterLoadBalancerRequest) clientRequest).getRequest();
+      headers = httpRequest.getHeaders();
+      uri = httpRequest.getURI();
+    } else if (clientRequest instanceof RequestData) {
+      // feign and web client
+      headers = ((RequestData) clientRequest).getHeaders();
+      uri = ((RequestData) clientRequest).getUrl();
+    } else {
+      return null;
+    }
+    if (StringUtils.isNotEmpty(hashHeader)) {
+      return headers == null ? null : headers.getFirst(hashHeader);
+    }
+    if (uri == null || uri.getPath() == null) {
+      return null;
+    }
+    String[] segments = StringUtils.split(uri.getPath(), '/');
+    return hashPathSegment < segments.length ? segments[hashPathSegment] : null;
+  }
+
+  // rebuild ring only when instances changed, and only points of added or removed instances are calculated
+  Ring ringOf(List<ServiceInstance> instances) {
+    Ring current = ring;
+    Set<String> latest = new HashSet<>(instances.size() * 4 / 3 + 1);
+    for (ServiceInstance instance : instances) {
+      latest.add(LoadBalancerStatsRecorder.instanceKey(instance));
+    }
+    if (latest.equals(current.instances)) {
+      return current;
+    }
+    TreeMap<Long, String> points = new TreeMap<>(current.points);
+    for (String key : current.instances) {
+      if (!latest.contains(key)) {
+        forEachPoint(key, point -> points.remove(point, key));
+      }
+    }
+    for (String key : latest) {
+      if (!current.instances.contains(key)) {
+        forEachPoint(key, point -> points.put(point, key));
+      }
+    }
+    Ring result = new Ring(latest, points);
+    ring = result;
+    return result;
+  }
+
+  private void forEachPoint(String instanceKey, LongConsumer consumer) {
+    for (int i = 0; i < virtualNodes / POINTS_PER_HASH; i++) {
+      ByteBuffer digest = ByteBuffer
+          .wrap(HASH_FUNCTION.hashString(instanceKey + "-" + i, StandardCharsets.UTF_8).asBytes());
+      for (int j = 0; j < POINTS_PER_HASH; j++) {
+        consumer.accept(Integer.toUnsignedLong(digest.getInt(j * Integer.BYTES)));
+      }
+    }
+  }
+
+  static class Ring {
+    final Set<String> instances;
+
+    // point to instance key
+    final NavigableMap<Long, String> points;
+
+    Ring(Set<String> instances, NavigableMap<Long, String> points) {
+      this.instances = instances;
+      this.points = points;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+/**
+ * Power of two choices: pick two random instances and use the one with less outstanding requests, divided by
+ * weight of the instance.
+ */
+public class LeastActiveLoadBalancer extends AbstractServiceInstanceLoadBalancer {
+  private final LoadBalancerStatsRecorder statsRecorder;
+
+  public LeastActiveLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+      String serviceId, LoadBalancerStatsRecorder statsRecorder) {
+    super(serviceInstanceListSupplierProvider, serviceId);
+    this.statsRecorder = statsRecorder;
+  }
+
+  @Override
+  protected boolean requiresAllInstances() {
+    return true;
+  }
+
+  @Override
+  protected ServiceInstance select(List<ServiceInstance> instances, List<ServiceInstance> allInstances,
+      Request<?> request) {
+    statsRecorder.retain(allInstances);
+    return select(instances, request);
+  }
+
+  @Override
+  protected ServiceInstance select(List<ServiceInstance> instances, Request<?> request) {
+    if (instances.size() == 1) {
+      return instances.get(0);
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(instances.size());
+    int second = random.nextInt(instances.size() - 1);
+    if (second >= first) {
+      second++;
+    }
+    ServiceInstance a = instances.get(first);
+    ServiceInstance b = instances.get(second);
+    long now = System.currentTimeMillis();
+    return load(b, now) < load(a, now) ? b : a;
+  }
+
+  private double load(ServiceInstance instance, long now) {
+    return (statsRecorder.getStats(instance).getActiveRequests() + 1) / weight(instance, now);
+  }
+}
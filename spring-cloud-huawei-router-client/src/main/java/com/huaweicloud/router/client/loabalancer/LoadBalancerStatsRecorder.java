@@ -0,0 +1,110 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.CompletionContext.Status;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * Collect call outcome of each instance. Spring cloud load balancer invokes the lifecycle for
+ * RestTemplate, Feign and WebClient calls after an instance is selected. Only registered when a load balancer
+ * rule using the stats is configured, stats of instances no longer discovered are removed.
+ */
+public class LoadBalancerStatsRecorder implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+  private final Map<String, ServiceInstanceStats> stats = new ConcurrentHashMap<>();
+
+  // weak keys are compared by identity, the same response object is passed to start and complete
+  private final Map<Response<ServiceInstance>, Long> startTimes = new MapMaker().weakKeys().makeMap();
+
+  // last instance list stats are retained for, compared by identity
+  private volatile List<ServiceInstance> retainedInstances;
+
+  public static String instanceKey(ServiceInstance instance) {
+    return instance.getInstanceId() != null ? instance.getInstanceId()
+        : instance.getHost() + ":" + instance.getPort();
+  }
+
+  public ServiceInstanceStats getStats(ServiceInstance instance) {
+    return stats.computeIfAbsent(instanceKey(instance), key -> new ServiceInstanceStats());
+  }
+
+  /**
+   * remove stats of instances not in the list, only when the list changed. Instance list suppliers with
+   * caching give the same list until instances are discovered again.
+   *
+   * @param instances all instances of the service before filtering
+   */
+  public void retain(List<ServiceInstance> instances) {
+    if (instances == retainedInstances || instances.isEmpty()) {
+      return;
+    }
+    retainedInstances = instances;
+    Set<String> keys = new HashSet<>(instances.size() * 4 / 3 + 1);
+    for (ServiceInstance instance : instances) {
+      keys.add(instanceKey(instance));
+    }
+    stats.keySet().retainAll(keys);
+  }
+
+  int size() {
+    return stats.size();
+  }
+
+  @Override
+  public void onStart(Request<Object> request) {
+
+  }
+
+  @Override
+  public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+    if (lbResponse == null || !lbResponse.hasServer()) {
+      return;
+    }
+    getStats(lbResponse.getServer()).onStart();
+    startTimes.put(lbResponse, System.currentTimeMillis());
+  }
+
+  @Override
+  public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+    Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+    if (lbResponse == null || !lbResponse.hasServer()) {
+      return;
+    }
+    Long start = startTimes.remove(lbResponse);
+    if (start == null) {
+      return;
+    }
+    // removed if instance is no longer discovered
+    ServiceInstanceStats instanceStats = stats.get(instanceKey(lbResponse.getServer()));
+    if (instanceStats != null) {
+      instanceStats.onComplete(System.currentTimeMillis() - start, completionContext.status() != Status.FAILED);
+    }
+  }
+}
@@ -17,6 +17,7 @@
 
 package com.huaweicloud.router.client.loabalancer;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.AllNestedConditions;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -37,11 +38,14 @@ import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
 import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -61,6 +65,16 @@ public class RouterLoadBalancerClientConfiguration {
 
   private static final int REACTIVE_SERVICE_INSTANCE_SUPPLIER_ORDER = 193827465;
 
+  public static final String LOAD_BALANCER_PREFIX = "spring.cloud.servicecomb.loadbalancer.";
+
+  public static final String RULE_ROUND_ROBIN = "RoundRobin";
+
+  public static final String RULE_LEAST_ACTIVE = "LeastActive";
+
+  public static final String RULE_WEIGHTED_RESPONSE_TIME = "WeightedResponseTime";
+
+  public static final String RULE_CONSISTENT_HASH = "ConsistentHash";
+
 
   @Bean
   @ConditionalOnMissingBean(CanaryServiceInstanceFilter.class)
@@ -75,13 +89,84 @@ public class RouterLoadBalancerClientConfiguration {
     return new ZoneAwareServiceInstanceFilter();
   }
 
+  @Bean
+  @ConditionalOnMissingBean(SlowStartWeight.class)
+  @ConditionalOnProperty(value = "spring.cloud.servicecomb.loadbalancer.slowStart.enabled", havingValue = "true")
+  public SlowStartWeight slowStartWeight() {
+    return new SlowStartWeight();
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @Conditional(StatsRuleCondition.class)
+  public LoadBalancerStatsRecorder loadBalancerStatsRecorder() {
+    return new LoadBalancerStatsRecorder();
+  }
+
   @Bean
   @ConditionalOnMissingBean
   public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
-      LoadBalancerClientFactory loadBalancerClientFactory) {
+      LoadBalancerClientFactory loadBalancerClientFactory, ObjectProvider<LoadBalancerStatsRecorder> statsRecorder,
+      ObjectProvider<SlowStartWeight> slowStartWeight) {
     String name = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
-    return new RoundRobinLoadBalancer(
-        loadBalancerClientFactory.getLazyProvider(name, ServiceInstanceListSupplier.class), name);
+    ObjectProvider<ServiceInstanceListSupplier> supplierProvider = loadBalancerClientFactory
+        .getLazyProvider(name, ServiceInstanceListSupplier.class);
+    // rule can be configured for each client, e.g. spring.cloud.servicecomb.loadbalancer.price.rule
+    String rule = clientProperty(environment, name, "rule", String.class, RULE_ROUND_ROBIN);
+    LoadBalancerStatsRecorder loadBalancerStatsRecorder = statsRecorder.getIfAvailable();
+    if (loadBalancerStatsRecorder == null && usesStats(rule)) {
+      // stats are only collected by the recorder bean, rules would select randomly with empty stats
+      throw new IllegalStateException("load balancer rule " + rule + " of " + name
+          + " requires a LoadBalancerStatsRecorder bean.");
+    }
+    SlowStartWeight weight = slowStartWeight.getIfAvailable();
+    AbstractServiceInstanceLoadBalancer loadBalancer;
+    switch (rule) {
+      case RULE_LEAST_ACTIVE:
+        loadBalancer = new LeastActiveLoadBalancer(supplierProvider, name, loadBalancerStatsRecorder);
+        break;
+      case RULE_WEIGHTED_RESPONSE_TIME:
+        loadBalancer = new WeightedResponseTimeLoadBalancer(supplierProvider, name, loadBalancerStatsRecorder);
+        break;
+      case RULE_CONSISTENT_HASH:
+        loadBalancer = new ConsistentHashLoadBalancer(supplierProvider, name, loadBalancerStatsRecorder,
+            clientProperty(environment, name, "hashHeader", String.class, ""),
+            clientProperty(environment, name, "hashPathSegment", Integer.class, 0),
+            clientProperty(environment, name, "virtualNodes", Integer.class, 160),
+            clientProperty(environment, name, "loadFactor", Double.class, 1.25D));
+        break;
+      default:
+        if (weight == null) {
+          return new RoundRobinLoadBalancer(supplierProvider, name);
+        }
+        // RoundRobinLoadBalancer does not support weight
+        loadBalancer = new WeightedRoundRobinLoadBalancer(supplierProvider, name);
+    }
+    loadBalancer.setSlowStartWeight(weight);
+    return loadBalancer;
+  }
+
+  /**
+   * stats are only collected for rules using them
+   */
+  static class StatsRuleCondition implements Condition {
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+      Environment environment = context.getEnvironment();
+      return usesStats(clientProperty(environment,
+          environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME), "rule", String.class, RULE_ROUND_ROBIN));
+    }
+  }
+
+  private static boolean usesStats(String rule) {
+    return RULE_LEAST_ACTIVE.equals(rule) || RULE_WEIGHTED_RESPONSE_TIME.equals(rule)
+        || RULE_CONSISTENT_HASH.equals(rule);
+  }
+
+  private static <T> T clientProperty(Environment environment, String name, String key, Class<T> type,
+      T defaultValue) {
+    return environment.getProperty(LOAD_BALANCER_PREFIX + name + "." + key, type,
+        environment.getProperty(LOAD_BALANCER_PREFIX + key, type, defaultValue));
   }
 
   @Configuration(proxyBeanMethods = false)
@@ -0,0 +1,62 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outstanding requests and exponentially weighted moving average of response time of one instance.
+ */
+public class ServiceInstanceStats {
+  private static final double DECAY = 0.2;
+
+  private static final long NO_SAMPLE = Double.doubleToLongBits(-1D);
+
+  private final AtomicInteger activeRequests = new AtomicInteger();
+
+  private final AtomicLong responseTime = new AtomicLong(NO_SAMPLE);
+
+  void onStart() {
+    activeRequests.incrementAndGet();
+  }
+
+  void onComplete(long millis, boolean success) {
+    activeRequests.decrementAndGet();
+    long current;
+    long next;
+    do {
+      current = responseTime.get();
+      double ewma = Double.longBitsToDouble(current);
+      // failed requests are counted as slow ones so that the instance is avoided for a while
+      double sample = success ? millis : Math.max(millis, ewma * 2);
+      next = Double.doubleToLongBits(ewma < 0 ? sample : ewma + DECAY * (sample - ewma));
+    } while (!responseTime.compareAndSet(current, next));
+  }
+
+  public int getActiveRequests() {
+    return activeRequests.get();
+  }
+
+  /**
+   * @return average response time in milliseconds, negative if there is no sample yet.
+   */
+  public double getResponseTime() {
+    return Double.longBitsToDouble(responseTime.get());
+  }
+}
@@ -0,0 +1,63 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+
+import com.huaweicloud.servicecomb.discovery.client.model.ServiceCombServiceInstance;
+
+/**
+ * Newly registered instances get a lower weight in load balancing, the weight grows linearly from minWeight
+ * to 1 during the slow start window, counted from the registration timestamp of the instance.
+ */
+public class SlowStartWeight {
+  @Value("${spring.cloud.servicecomb.loadbalancer.slowStart.window:60000}")
+  private long window;
+
+  @Value("${spring.cloud.servicecomb.loadbalancer.slowStart.minWeight:0.1}")
+  private double minWeight;
+
+  public SlowStartWeight() {
+  }
+
+  public SlowStartWeight(long window, double minWeight) {
+    this.window = window;
+    this.minWeight = minWeight;
+  }
+
+  /**
+   * @return weight between minWeight and 1
+   */
+  public double weight(ServiceInstance instance, long now) {
+    if (window <= 0 || !(instance instanceof ServiceCombServiceInstance)) {
+      return 1D;
+    }
+    String timestamp = ((ServiceCombServiceInstance) instance).getMicroserviceInstance().getTimestamp();
+    if (!StringUtils.isNumeric(timestamp)) {
+      return 1D;
+    }
+    // service center timestamp is in seconds
+    long age = now - Long.parseLong(timestamp) * 1000L;
+    if (age >= window) {
+      return 1D;
+    }
+    return minWeight + (1D - minWeight) * Math.max(0L, age) / window;
+  }
+}
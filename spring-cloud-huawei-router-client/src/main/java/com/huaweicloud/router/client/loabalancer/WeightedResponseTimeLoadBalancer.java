@@ -0,0 +1,92 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+/**
+ * Select instances randomly, weight of each instance is inversely proportional to its average response time.
+ * Instances without samples get the average weight. Weights are also scaled by slow start weight.
+ */
+public class WeightedResponseTimeLoadBalancer extends AbstractServiceInstanceLoadBalancer {
+  // avoid huge weights for instances responding in less than one millisecond
+  private static final double MIN_RESPONSE_TIME = 1D;
+
+  private final LoadBalancerStatsRecorder statsRecorder;
+
+  public WeightedResponseTimeLoadBalancer(
+      ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+      String serviceId, LoadBalancerStatsRecorder statsRecorder) {
+    super(serviceInstanceListSupplierProvider, serviceId);
+    this.statsRecorder = statsRecorder;
+  }
+
+  @Override
+  protected boolean requiresAllInstances() {
+    return true;
+  }
+
+  @Override
+  protected ServiceInstance select(List<ServiceInstance> instances, List<ServiceInstance> allInstances,
+      Request<?> request) {
+    statsRecorder.retain(allInstances);
+    return select(instances, request);
+  }
+
+  @Override
+  protected ServiceInstance select(List<ServiceInstance> instances, Request<?> request) {
+    if (instances.size() == 1) {
+      return instances.get(0);
+    }
+    double[] weights = new double[instances.size()];
+    double total = 0;
+    int sampled = 0;
+    for (int i = 0; i < weights.length; i++) {
+      double responseTime = statsRecorder.getStats(instances.get(i)).getResponseTime();
+      if (responseTime >= 0) {
+        weights[i] = 1D / Math.max(responseTime, MIN_RESPONSE_TIME);
+        total += weights[i];
+        sampled++;
+      }
+    }
+    double average = sampled == 0 ? 1D : total / sampled;
+    long now = System.currentTimeMillis();
+    total = 0;
+    for (int i = 0; i < weights.length; i++) {
+      if (weights[i] == 0) {
+        weights[i] = average;
+      }
+      weights[i] *= weight(instances.get(i), now);
+      total += weights[i];
+    }
+    double position = ThreadLocalRandom.current().nextDouble(total);
+    for (int i = 0; i < weights.length; i++) {
+      position -= weights[i];
+      if (position < 0) {
+        return instances.get(i);
+      }
+    }
+    return instances.get(weights.length - 1);
+  }
+}
@@ -0,0 +1,66 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+/**
+ * Round robin while all instances have full weight, otherwise select randomly by weight, so that instances in
+ * slow start get less requests. Used instead of RoundRobinLoadBalancer when slow start is enabled.
+ */
+public class WeightedRoundRobinLoadBalancer extends AbstractServiceInstanceLoadBalancer {
+  private final AtomicInteger position = new AtomicInteger(ThreadLocalRandom.current().nextInt(1000));
+
+  public WeightedRoundRobinLoadBalancer(
+      ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider, String serviceId) {
+    super(serviceInstanceListSupplierProvider, serviceId);
+  }
+
+  @Override
+  protected ServiceInstance select(List<ServiceInstance> instances, Request<?> request) {
+    int next = position.incrementAndGet() & Integer.MAX_VALUE;
+    if (instances.size() == 1) {
+      return instances.get(0);
+    }
+    long now = System.currentTimeMillis();
+    double[] weights = new double[instances.size()];
+    double total = 0;
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = weight(instances.get(i), now);
+      total += weights[i];
+    }
+    if (total >= weights.length) {
+      return instances.get(next % instances.size());
+    }
+    double point = ThreadLocalRandom.current().nextDouble(total);
+    for (int i = 0; i < weights.length; i++) {
+      point -= weights[i];
+      if (point < 0) {
+        return instances.get(i);
+      }
+    }
+    return instances.get(weights.length - 1);
+  }
+}
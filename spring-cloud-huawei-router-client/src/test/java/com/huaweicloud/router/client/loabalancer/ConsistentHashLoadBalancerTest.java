@@ -0,0 +1,143 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+
+public class ConsistentHashLoadBalancerTest {
+  private final LoadBalancerStatsRecorder statsRecorder = new LoadBalancerStatsRecorder();
+
+  private final List<ServiceInstance> instances = Arrays.asList(instance("i1"), instance("i2"),
+      instance("i3"), instance("i4"));
+
+  private static ServiceInstance instance(String id) {
+    return new DefaultServiceInstance(id, "provider", "127.0.0." + id.substring(1), 8080, false);
+  }
+
+  private static Request<?> request(String user) {
+    RequestData requestData = new RequestData(HttpMethod.GET, URI.create("http://provider/" + user + "/orders"),
+        new HttpHeaders(), new LinkedMultiValueMap<>(), new HashMap<>());
+    return new DefaultRequest<>(new DefaultRequestContext(requestData));
+  }
+
+  private ConsistentHashLoadBalancer loadBalancer(double loadFactor) {
+    return new ConsistentHashLoadBalancer(null, "provider", statsRecorder, "", 0, 160, loadFactor);
+  }
+
+  private static List<ServiceInstance> without(List<ServiceInstance> instances, ServiceInstance removed) {
+    return instances.stream().filter(instance -> instance != removed).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testSameKeySameInstance() {
+    ConsistentHashLoadBalancer loadBalancer = loadBalancer(1);
+    ServiceInstance selected = loadBalancer.select(instances, instances, request("u1"));
+    for (int i = 0; i < 10; i++) {
+      Assert.assertSame(selected, loadBalancer.select(instances, instances, request("u1")));
+    }
+  }
+
+  @Test
+  public void testRingKeptWhenFiltered() {
+    ConsistentHashLoadBalancer loadBalancer = loadBalancer(1);
+    ServiceInstance selected = loadBalancer.select(instances, instances, request("u1"));
+    ConsistentHashLoadBalancer.Ring ring = loadBalancer.ringOf(instances);
+
+    // other instance filtered out for this request, affinity is kept and ring is not rebuilt
+    ServiceInstance other = instances.stream().filter(instance -> instance != selected).findFirst().get();
+    Assert.assertSame(selected, loadBalancer.select(without(instances, other), instances, request("u1")));
+    Assert.assertSame(ring, loadBalancer.ringOf(instances));
+
+    // selected instance filtered out, goes to next one and comes back
+    ServiceInstance next = loadBalancer.select(without(instances, selected), instances, request("u1"));
+    Assert.assertNotSame(selected, next);
+    Assert.assertSame(selected, loadBalancer.select(instances, instances, request("u1")));
+    Assert.assertSame(ring, loadBalancer.ringOf(instances));
+  }
+
+  @Test
+  public void testRingChangedOnlyForChangedInstances() {
+    ConsistentHashLoadBalancer loadBalancer = loadBalancer(1);
+    ConsistentHashLoadBalancer.Ring ring = loadBalancer.ringOf(instances);
+    Assert.assertEquals(4 * 160, ring.points.size());
+
+    List<ServiceInstance> more = new ArrayList<>(instances);
+    more.add(instance("i5"));
+    ConsistentHashLoadBalancer.Ring added = loadBalancer.ringOf(more);
+    Assert.assertEquals(5 * 160, added.points.size());
+    // points of existing instances are kept, unless taken by the new one
+    ring.points.forEach((point, key) -> {
+      String current = added.points.get(point);
+      Assert.assertTrue(key.equals(current) || "i5".equals(current));
+    });
+
+    Assert.assertEquals(ring.points, loadBalancer.ringOf(instances).points);
+  }
+
+  @Test
+  public void testBoundedLoad() {
+    ConsistentHashLoadBalancer loadBalancer = loadBalancer(1.25D);
+    ServiceInstance selected = loadBalancer.select(instances, instances, request("u1"));
+    for (int i = 0; i < 10; i++) {
+      statsRecorder.getStats(selected).onStart();
+    }
+    ServiceInstance next = loadBalancer.select(instances, instances, request("u1"));
+    Assert.assertNotSame(selected, next);
+    // the overloaded one is not skipped without bounded load
+    Assert.assertSame(selected, loadBalancer(1).select(instances, instances, request("u1")));
+
+    for (int i = 0; i < 10; i++) {
+      statsRecorder.getStats(selected).onComplete(1, true);
+    }
+    Assert.assertSame(selected, loadBalancer.select(instances, instances, request("u1")));
+  }
+
+  @Test
+  public void testBoundedLoadAllOverloaded() {
+    ConsistentHashLoadBalancer loadBalancer = loadBalancer(1.25D);
+    ServiceInstance selected = loadBalancer.select(instances, instances, request("u1"));
+    List<ServiceInstance> available = Arrays.asList(selected);
+    for (int i = 0; i < 10; i++) {
+      statsRecorder.getStats(selected).onStart();
+    }
+    Assert.assertSame(selected, loadBalancer.select(available, instances, request("u1")));
+  }
+
+  @Test
+  public void testNoHashKey() {
+    ConsistentHashLoadBalancer loadBalancer = loadBalancer(1);
+    Assert.assertTrue(instances.contains(loadBalancer.select(instances, instances, null)));
+  }
+}
@@ -0,0 +1,83 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+package com.huaweicloud.router.client.loabalancer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+
+public class LeastActiveLoadBalancerTest {
+  private final LoadBalancerStatsRecorder statsRecorder = new LoadBalancerStatsRecorder();
+
+  private final LeastActiveLoadBalancer loadBalancer = new LeastActiveLoadBalancer(null, "provider",
+      statsRecorder);
+
+  private static ServiceInstance instance(String id) {
+    return new DefaultServiceInstance(id, "provider", "127.0.0." + id.substring(1), 8080, false);
+  }
+
+  private void active(ServiceInstance instance, int count) {
+    for (int i = 0; i < count; i++) {
+      statsRecorder.getStats(instance).onStart();
+    }
+  }
+
+  @Test
+  public void testLessActiveSelected() {
+    List<ServiceInstance> instances = Arrays.asList(instance("i1"), instance("i2"));
+    active(instances.get(0), 5);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertSame(instances.get(1), loadBalancer.select(instances, instances, new DefaultRequest<>()));
+    }
+  }
+
+  @Test
+  public void testMostActiveNeverSelected() {
+    List<ServiceInstance> instances = Arrays.asList(instance("i1"), instance("i2"), instance("i3"));
+    active(instances.get(0), 10);
+    active(instances.get(1), 1);
+    int[] selected = new int[instances.size()];
+    for (int i = 0; i < 1000; i++) {
+      selected[instances.indexOf(loadBalancer.select(instances, instances, new DefaultRequest<>()))]++;
+    }
+    Assert.assertEquals(0, selected[0]);
+    // i2 is only selected when compared with i1
+    Assert.assertTrue(selected[2] > selected[1]);
+  }
+
+  @Test
+  public void testSingleInstance() {
+    List<ServiceInstance> instances = Collections.singletonList(instance("i1"));
+    active(instances.get(0), 5);
+    Assert.assertSame(instances.get(0), loadBalancer.select(instances, instances, new DefaultRequest<>()));
+  }
+
+  @Test
+  public void testStatsOfRemovedInstancesDropped() {
+    List<ServiceInstance> instances = Arrays.asList(instance("i1"), instance("i2"));
+    active(instances.get(0), 5);
+    List<ServiceInstance> remaining = Collections.singletonList(instance("i2"));
+    loadBalancer.select(remaining, remaining, new DefaultRequest<>());
+    Assert.assertEquals(0, statsRecorder.getStats(instances.get(0)).getActiveRequests());
+  }
+}
@@ -0,0 +1,52 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+public class LoadBalancerStatsRecorderTest {
+  @Test
+  public void testRetain() {
+    ServiceInstance i1 = new DefaultServiceInstance("i1", "provider", "127.0.0.1", 8080, false);
+    ServiceInstance i2 = new DefaultServiceInstance("i2", "provider", "127.0.0.2", 8080, false);
+    LoadBalancerStatsRecorder recorder = new LoadBalancerStatsRecorder();
+    recorder.getStats(i1).onStart();
+    recorder.getStats(i2).onStart();
+
+    List<ServiceInstance> instances = new ArrayList<>(Arrays.asList(i1, i2));
+    recorder.retain(instances);
+    Assert.assertEquals(2, recorder.size());
+
+    // same list is not checked again
+    instances.remove(i2);
+    recorder.retain(instances);
+    Assert.assertEquals(2, recorder.size());
+
+    recorder.retain(new ArrayList<>(instances));
+    Assert.assertEquals(1, recorder.size());
+    Assert.assertEquals(1, recorder.getStats(i1).getActiveRequests());
+    Assert.assertEquals(0, recorder.getStats(i2).getActiveRequests());
+  }
+}
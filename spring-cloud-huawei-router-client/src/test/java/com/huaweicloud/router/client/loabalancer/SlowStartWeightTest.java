@@ -0,0 +1,79 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.router.client.loabalancer;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.servicecomb.service.center.client.model.MicroserviceInstance;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import com.huaweicloud.servicecomb.discovery.client.model.ServiceCombServiceInstance;
+
+public class SlowStartWeightTest {
+  private static ServiceInstance instance(String id, long registeredMillis) {
+    MicroserviceInstance microserviceInstance = new MicroserviceInstance();
+    microserviceInstance.setInstanceId(id);
+    microserviceInstance.setHostName(id);
+    microserviceInstance.setTimestamp(String.valueOf(registeredMillis / 1000));
+    return new ServiceCombServiceInstance(microserviceInstance);
+  }
+
+  @Test
+  public void testWeight() {
+    SlowStartWeight slowStartWeight = new SlowStartWeight(60000, 0.1);
+    long now = 1000000000L;
+    Assert.assertEquals(0.1, slowStartWeight.weight(instance("i1", now), now), 0.001);
+    Assert.assertEquals(0.55, slowStartWeight.weight(instance("i1", now - 30000), now), 0.001);
+    Assert.assertEquals(1, slowStartWeight.weight(instance("i1", now - 60000), now), 0.001);
+    Assert.assertEquals(1, slowStartWeight.weight(new DefaultServiceInstance("i2", "provider", "h", 80, false), now),
+        0.001);
+    Assert.assertEquals(1, new SlowStartWeight(0, 0.1).weight(instance("i1", now), now), 0.001);
+  }
+
+  @Test
+  public void testWeightedRoundRobin() {
+    long now = System.currentTimeMillis();
+    ServiceInstance warm = instance("warm", now - 3600000);
+    ServiceInstance cold = instance("cold", now);
+    List<ServiceInstance> instances = Arrays.asList(warm, cold);
+
+    WeightedRoundRobinLoadBalancer loadBalancer = new WeightedRoundRobinLoadBalancer(null, "provider");
+    loadBalancer.setSlowStartWeight(new SlowStartWeight(3600000, 0.1));
+    int coldSelected = 0;
+    for (int i = 0; i < 1000; i++) {
+      if (loadBalancer.select(instances, null) == cold) {
+        coldSelected++;
+      }
+    }
+    // expected 1000 * 0.1 / 1.1
+    Assert.assertTrue(coldSelected > 30 && coldSelected < 200);
+
+    loadBalancer.setSlowStartWeight(null);
+    coldSelected = 0;
+    for (int i = 0; i < 1000; i++) {
+      if (loadBalancer.select(instances, null) == cold) {
+        coldSelected++;
+      }
+    }
+    Assert.assertEquals(500, coldSelected);
+  }
+}
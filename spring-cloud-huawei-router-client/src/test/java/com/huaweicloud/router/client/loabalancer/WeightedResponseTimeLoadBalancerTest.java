@@ -0,0 +1,93 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+package com.huaweicloud.router.client.loabalancer;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+
+public class WeightedResponseTimeLoadBalancerTest {
+  private final LoadBalancerStatsRecorder statsRecorder = new LoadBalancerStatsRecorder();
+
+  private final WeightedResponseTimeLoadBalancer loadBalancer = new WeightedResponseTimeLoadBalancer(null,
+      "provider", statsRecorder);
+
+  private final List<ServiceInstance> instances = Arrays.asList(instance("i1"), instance("i2"),
+      instance("i3"));
+
+  private static ServiceInstance instance(String id) {
+    return new DefaultServiceInstance(id, "provider", "127.0.0." + id.substring(1), 8080, false);
+  }
+
+  private void responseTime(ServiceInstance instance, long millis) {
+    ServiceInstanceStats stats = statsRecorder.getStats(instance);
+    stats.onStart();
+    stats.onComplete(millis, true);
+  }
+
+  private int[] select(int times) {
+    int[] selected = new int[instances.size()];
+    for (int i = 0; i < times; i++) {
+      selected[instances.indexOf(loadBalancer.select(instances, instances, new DefaultRequest<>()))]++;
+    }
+    return selected;
+  }
+
+  @Test
+  public void testFasterSelectedMore() {
+    responseTime(instances.get(0), 1);
+    responseTime(instances.get(1), 100);
+    responseTime(instances.get(2), 100);
+    int[] selected = select(1000);
+    // weights are 1, 0.01 and 0.01
+    Assert.assertTrue(selected[0] > 900);
+    Assert.assertTrue(selected[1] < 100);
+    Assert.assertTrue(selected[2] < 100);
+  }
+
+  @Test
+  public void testInstanceWithoutSampleGetsAverageWeight() {
+    responseTime(instances.get(0), 10);
+    responseTime(instances.get(1), 10);
+    int[] selected = select(3000);
+    for (int count : selected) {
+      Assert.assertTrue(count > 800);
+    }
+  }
+
+  @Test
+  public void testFailedRequestCountedSlow() {
+    responseTime(instances.get(0), 10);
+    responseTime(instances.get(1), 10);
+    responseTime(instances.get(2), 10);
+    ServiceInstanceStats stats = statsRecorder.getStats(instances.get(0));
+    // each failure counts as twice the average, average grows 1.2 times
+    for (int i = 0; i < 20; i++) {
+      stats.onStart();
+      stats.onComplete(10, false);
+    }
+    Assert.assertTrue(stats.getResponseTime() > 100);
+    int[] selected = select(1000);
+    Assert.assertTrue(selected[0] < selected[1]);
+    Assert.assertTrue(selected[0] < selected[2]);
+  }
+}
@@ -27,6 +27,11 @@ import springfox.documentation.spring.web.scanners.ApiListingScanningContext;
 
 @Aspect
 public class ApiModelReaderAop {
+  private final DefinitionCache definitionCache;
+
+  public ApiModelReaderAop(DefinitionCache definitionCache) {
+    this.definitionCache = definitionCache;
+  }
 
   // TODO: fix deprecation problems.
   @SuppressWarnings({"deprecation", "unchecked"})
@@ -35,7 +40,7 @@ public class ApiModelReaderAop {
     ((Map<String, Set<springfox.documentation.schema.Model>>) result).forEach(
         (key, values) -> {
           values.forEach(value -> {
-            DefinitionCache.setDefinition(key, value.getQualifiedType());
+            definitionCache.setDefinition(key, value.getQualifiedType());
           });
         }
     );
@@ -44,6 +49,6 @@ public class ApiModelReaderAop {
   @Before(value = "execution(* springfox.documentation.spring.web.scanners.ApiListingScanner.scan(..)) && args(args)", argNames = "args")
   public void beforeParseSchema(ApiListingScanningContext args) {
     args.getRequestMappingsByResourceGroup().keySet().forEach(k ->
-        DefinitionCache.setSchemaClassName(k.getGroupName(), k.getControllerClass().get().getName()));
+        definitionCache.setSchemaClassName(k.getGroupName(), k.getControllerClass().get().getName()));
   }
 }
@@ -16,37 +16,50 @@
   */
 package com.huaweicloud.swagger;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Model and controller class names collected by {@link ApiModelReaderAop} during springfox scanning.
+ *
+ * Each application context has its own cache, shared by its aspect and its swagger handler, so generations
+ * in different contexts do not see each other's class names. The handler clears it once schemas are
+ * generated. Maps are concurrent, documentation groups can be scanned in parallel.
+ *
  * @Author GuoYl123
  * @Date 2019/12/28
  **/
 public class DefinitionCache {
+  private final Map<String, String> definitionMap = new ConcurrentHashMap<>();
 
-  private static Map<String, String> definitionMap = new HashMap<>();
+  private final Map<String, String> schemaClassNameMap = new ConcurrentHashMap<>();
 
-  private static Map<String, String> schemaClassNameMap = new HashMap<>();
-
-  public static String getClassByDefName(String name) {
+  public String getClassByDefName(String name) {
     return definitionMap.get(name);
   }
 
-  public static void setDefinition(String name, String javaDef) {
+  public void setDefinition(String name, String javaDef) {
     definitionMap.put(name, javaDef);
   }
 
-  public static String getFullClassNameBySchema(String name) {
+  public String getFullClassNameBySchema(String name) {
     return schemaClassNameMap.get(name);
   }
 
-  public static String getClassNameBySchema(String name) {
+  public String getClassNameBySchema(String name) {
     String fullName = schemaClassNameMap.get(name);
+    if (fullName == null) {
+      return null;
+    }
     return fullName.substring(fullName.lastIndexOf(".") + 1);
   }
 
-  public static void setSchemaClassName(String name, String javaDef) {
+  public void setSchemaClassName(String name, String javaDef) {
     schemaClassNameMap.put(name, javaDef);
   }
+
+  public void clear() {
+    definitionMap.clear();
+    schemaClassNameMap.clear();
+  }
 }
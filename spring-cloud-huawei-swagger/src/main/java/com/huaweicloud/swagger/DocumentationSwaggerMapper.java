@@ -27,9 +27,20 @@ public interface DocumentationSwaggerMapper {
    * mapping springfox schema to schema id.
    */
   default String mapSchemaId(String originalSchemaId) {
-    String className = DefinitionCache.getClassNameBySchema(originalSchemaId);
+    String className = getDefinitionCache().getClassNameBySchema(originalSchemaId);
+    if (className == null) {
+      return originalSchemaId;
+    }
     return className.replace("$", "_");
   }
 
+  /**
+   * class names collected while scanning the documentation to map, empty unless the mapper is created with
+   * the cache of its application context.
+   */
+  default DefinitionCache getDefinitionCache() {
+    return new DefinitionCache();
+  }
+
   Map<String, Swagger> documentationToSwaggers(Documentation documentation);
 }
@@ -0,0 +1,83 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.swagger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Do not start springfox scanning when swagger schemas are prebuilt, see {@link SwaggerSchemaFiles}, or
+ * cached for this classpath, see {@link SwaggerSchemaCache}. Scanning always runs when exporting schemas.
+ *
+ * Both are opt-in by usePrebuilt and cacheEnabled: without scanning, springfox documentation endpoints like
+ * /v2/api-docs are empty, and prebuilt schemas are used as they are, without checking them against the code.
+ */
+public class PrebuiltSwaggerEnvironmentPostProcessor implements EnvironmentPostProcessor {
+  static final String USE_PREBUILT = "spring.cloud.servicecomb.swagger.usePrebuilt";
+
+  static final String CACHE_ENABLED = "spring.cloud.servicecomb.swagger.cacheEnabled";
+
+  static final String CACHE_DIR = "spring.cloud.servicecomb.swagger.cacheDir";
+
+  static final String EXPORT_DIR = "spring.cloud.servicecomb.swagger.exportDir";
+
+  // root of the application classes, prebuilt schemas are only loaded from here
+  static final String APPLICATION_ROOT = "spring.cloud.servicecomb.swagger.applicationRoot";
+
+  private static final String AUTO_STARTUP = "springfox.documentation.auto-startup";
+
+  @Override
+  public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+    Map<String, Object> properties = new HashMap<>();
+    String applicationRoot = SwaggerSchemaFiles.applicationRoot(application.getMainApplicationClass());
+    if (applicationRoot != null && !environment.containsProperty(APPLICATION_ROOT)) {
+      properties.put(APPLICATION_ROOT, applicationRoot);
+    }
+    if (!environment.containsProperty(AUTO_STARTUP) && !isExporting(environment)
+        && (isPrebuilt(environment, application, environment.getProperty(APPLICATION_ROOT, applicationRoot))
+        || isCached(environment))) {
+      properties.put(AUTO_STARTUP, "false");
+    }
+    if (!properties.isEmpty()) {
+      environment.getPropertySources().addLast(new MapPropertySource("servicecomb-prebuilt-swagger", properties));
+    }
+  }
+
+  private boolean isExporting(ConfigurableEnvironment environment) {
+    return !environment.getProperty(EXPORT_DIR, "").isEmpty();
+  }
+
+  private boolean isPrebuilt(ConfigurableEnvironment environment, SpringApplication application,
+      String applicationRoot) {
+    return environment.getProperty(USE_PREBUILT, boolean.class, false)
+        && SwaggerSchemaFiles.exists(application.getClassLoader(), applicationRoot);
+  }
+
+  private boolean isCached(ConfigurableEnvironment environment) {
+    if (!environment.getProperty(CACHE_ENABLED, boolean.class, false)) {
+      return false;
+    }
+    SwaggerSchemaCache cache = SwaggerSchemaCache.create(environment.getProperty(CACHE_DIR, ""));
+    return cache != null && cache.exists();
+  }
+}
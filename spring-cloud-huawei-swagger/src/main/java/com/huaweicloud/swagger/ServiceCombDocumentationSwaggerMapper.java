@@ -69,11 +69,19 @@ public class ServiceCombDocumentationSwaggerMapper implements DocumentationSwagg
 
   private final String serviceName;
 
+  private final DefinitionCache definitionCache;
+
   public ServiceCombDocumentationSwaggerMapper(
-      String appName, String serviceName, ServiceModelToSwagger2Mapper mapper) {
+      String appName, String serviceName, ServiceModelToSwagger2Mapper mapper, DefinitionCache definitionCache) {
     this.appName = appName;
     this.serviceName = serviceName;
     this.mapper = mapper;
+    this.definitionCache = definitionCache;
+  }
+
+  @Override
+  public DefinitionCache getDefinitionCache() {
+    return definitionCache;
   }
 
   @Override
@@ -106,7 +114,7 @@ public class ServiceCombDocumentationSwaggerMapper implements DocumentationSwagg
   }
 
   private void changeSwaggerInfo(String originalSchemaId, Swagger swagger) {
-    String fullClassName = DefinitionCache.getFullClassNameBySchema(originalSchemaId);
+    String fullClassName = definitionCache.getFullClassNameBySchema(originalSchemaId);
     String xInterfaceName = genXInterfaceName(appName, serviceName, mapSchemaId(originalSchemaId));
 
     Info info = swagger.getInfo();
@@ -118,7 +126,7 @@ public class ServiceCombDocumentationSwaggerMapper implements DocumentationSwagg
     swagger.getDefinitions().forEach((k, v) -> {
       if (v instanceof AbstractModel) {
         ((AbstractModel) v)
-            .setVendorExtension(X_JAVA_CLASS, DefinitionCache.getClassByDefName(k));
+            .setVendorExtension(X_JAVA_CLASS, definitionCache.getClassByDefName(k));
       }
     });
   }
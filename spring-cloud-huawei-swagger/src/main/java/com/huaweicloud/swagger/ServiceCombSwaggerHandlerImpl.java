@@ -16,17 +16,23 @@
   */
 package com.huaweicloud.swagger;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.base.Charsets;
@@ -54,6 +60,12 @@ public class ServiceCombSwaggerHandlerImpl implements ServiceCombSwaggerHandler
   @Autowired
   protected ServiceModelToSwagger2Mapper mapper;
 
+  @Autowired
+  protected DefinitionCache definitionCache;
+
+  @Autowired
+  protected Environment environment;
+
   private Map<String, Swagger> swaggerMap = new HashMap<>();
 
   private Map<String, String> swaggerContent = new HashMap<>();
@@ -63,8 +75,41 @@ public class ServiceCombSwaggerHandlerImpl implements ServiceCombSwaggerHandler
   @Value("${spring.cloud.servicecomb.swagger.enableJavaChassisAdapter:true}")
   protected boolean withJavaChassis;
 
+  @Value("${" + PrebuiltSwaggerEnvironmentPostProcessor.USE_PREBUILT + ":false}")
+  protected boolean usePrebuilt;
+
+  @Value("${" + PrebuiltSwaggerEnvironmentPostProcessor.APPLICATION_ROOT + ":}")
+  protected String applicationRoot;
+
+  // when exporting, always scan so that exported schemas are up to date
+  @Value("${" + PrebuiltSwaggerEnvironmentPostProcessor.EXPORT_DIR + ":}")
+  protected String exportDir;
+
+  // cache generated schemas on local disk, see SwaggerSchemaCache
+  @Value("${" + PrebuiltSwaggerEnvironmentPostProcessor.CACHE_ENABLED + ":false}")
+  protected boolean cacheEnabled;
+
+  @Value("${" + PrebuiltSwaggerEnvironmentPostProcessor.CACHE_DIR + ":}")
+  protected String cacheDir;
+
+  // 0 means number of processors
+  @Value("${spring.cloud.servicecomb.swagger.serializeParallelism:0}")
+  protected int serializeParallelism;
+
   @Override
   public void init(String appName, String serviceName) {
+    boolean exporting = StringUtils.isNotEmpty(exportDir);
+    if (usePrebuilt && !exporting && initFromPrebuilt()) {
+      return;
+    }
+
+    SwaggerSchemaCache cache = cacheEnabled ? SwaggerSchemaCache.create(cacheDir) : null;
+    String cacheKey = SwaggerSchemaCache.key(appName, serviceName, withJavaChassis,
+        environment.getActiveProfiles());
+    if (cache != null && !exporting && initFromCache(cache, cacheKey)) {
+      return;
+    }
+
     documentationPluginsBootstrapper.start();
 
     Documentation documentation = documentationCache
@@ -72,31 +117,101 @@ public class ServiceCombSwaggerHandlerImpl implements ServiceCombSwaggerHandler
 
     DocumentationSwaggerMapper documentationSwaggerMapper;
     if (withJavaChassis) {
-      documentationSwaggerMapper = new ServiceCombDocumentationSwaggerMapper(appName, serviceName, mapper);
+      documentationSwaggerMapper = new ServiceCombDocumentationSwaggerMapper(appName, serviceName, mapper,
+          definitionCache);
     } else {
-      documentationSwaggerMapper = new SpringCloudDocumentationSwaggerMapper(mapper);
+      documentationSwaggerMapper = new SpringCloudDocumentationSwaggerMapper(mapper, definitionCache);
+    }
+    try {
+      this.swaggerMap = documentationSwaggerMapper.documentationToSwaggers(documentation);
+    } finally {
+      // class names are only needed by this generation
+      definitionCache.clear();
     }
-    this.swaggerMap = documentationSwaggerMapper.documentationToSwaggers(documentation);
 
-    this.swaggerContent = calcSchemaContent();
+    calcSchemaContentAndSummary();
+
+    if (cache != null) {
+      cache.store(cacheKey, swaggerContent, swaggerSummary);
+    }
 
-    this.swaggerSummary = calcSchemaSummary();
+    if (exporting) {
+      try {
+        SwaggerSchemaFiles.export(Paths.get(exportDir), swaggerContent, swaggerSummary);
+        LOGGER.info("exported {} swagger schemas to {}.", swaggerContent.size(), exportDir);
+      } catch (IOException e) {
+        LOGGER.error("export swagger schemas to {} failed.", exportDir, e);
+      }
+    }
+  }
+
+  private boolean initFromPrebuilt() {
+    Map<String, String> summaries = new HashMap<>();
+    Map<String, String> schemas = SwaggerSchemaFiles.load(getClass().getClassLoader(), applicationRoot,
+        summaries);
+    if (schemas.isEmpty()) {
+      return false;
+    }
+    LOGGER.info("use {} prebuilt swagger schemas, springfox scanning is skipped, schemas are not checked"
+        + " against current code and springfox documentation endpoints are empty.", schemas.size());
+    this.swaggerContent = schemas;
+    this.swaggerSummary = summaries;
+    return true;
+  }
+
+  private boolean initFromCache(SwaggerSchemaCache cache, String cacheKey) {
+    Map<String, String> summaries = new HashMap<>();
+    Map<String, String> schemas = cache.load(cacheKey, summaries);
+    if (schemas.isEmpty()) {
+      return false;
+    }
+    LOGGER.info("use {} cached swagger schemas, springfox scanning is skipped.", schemas.size());
+    this.swaggerContent = schemas;
+    this.swaggerSummary = summaries;
+    return true;
   }
 
-  private Map<String, String> calcSchemaContent() {
-    return swaggerMap.entrySet().stream().collect(Collectors.toMap(Entry::getKey, entry -> {
+  // serialize each schema once and hash the same bytes, schemas are processed in parallel
+  private void calcSchemaContentAndSummary() {
+    Map<String, String> contents = new ConcurrentHashMap<>();
+    Map<String, String> summaries = new ConcurrentHashMap<>();
+    int parallelism = Math.min(swaggerMap.size(),
+        serializeParallelism > 0 ? serializeParallelism : Runtime.getRuntime().availableProcessors());
+    if (parallelism <= 1) {
+      swaggerMap.forEach((schemaId, swagger) -> serialize(schemaId, swagger, contents, summaries));
+    } else {
+      ForkJoinPool pool = new ForkJoinPool(parallelism);
       try {
-        return Yaml.mapper().writeValueAsString(entry.getValue());
-      } catch (JsonProcessingException e) {
-        LOGGER.error("error when calcSchemaSummary.", e);
+        pool.submit(() -> swaggerMap.entrySet().parallelStream()
+            .forEach(entry -> serialize(entry.getKey(), entry.getValue(), contents, summaries))).get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("serialize swagger schemas interrupted.", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("serialize swagger schemas failed.", e);
+      } finally {
+        pool.shutdown();
       }
-      return null;
-    }));
+    }
+    this.swaggerContent = new HashMap<>(contents);
+    this.swaggerSummary = new HashMap<>(summaries);
+  }
+
+  private static void serialize(String schemaId, Swagger swagger, Map<String, String> contents,
+      Map<String, String> summaries) {
+    byte[] bytes;
+    try {
+      bytes = Yaml.mapper().writeValueAsBytes(swagger);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("serialize swagger schema " + schemaId + " failed.", e);
+    }
+    contents.put(schemaId, new String(bytes, StandardCharsets.UTF_8));
+    summaries.put(schemaId, Hashing.sha256().hashBytes(bytes).toString());
   }
 
   @Override
   public List<String> getSchemaIds() {
-    return new ArrayList<>(swaggerMap.keySet());
+    return new ArrayList<>(swaggerContent.keySet());
   }
 
   @Override
@@ -109,19 +224,7 @@ public class ServiceCombSwaggerHandlerImpl implements ServiceCombSwaggerHandler
     return this.swaggerSummary;
   }
 
-  private Map<String, String> calcSchemaSummary() {
-    return swaggerMap.entrySet().stream()
-        .collect(Collectors.toMap(Entry::getKey, entry -> {
-          try {
-            return calcSchemaSummary(Yaml.mapper().writeValueAsString(entry.getValue()));
-          } catch (JsonProcessingException e) {
-            LOGGER.error("error when calcSchemaSummary.", e);
-          }
-          return null;
-        }));
-  }
-
-  private static String calcSchemaSummary(String schemaContent) {
+  static String calcSchemaSummary(String schemaContent) {
     return Hashing.sha256().newHasher().putString(schemaContent, Charsets.UTF_8).hash().toString();
   }
 }
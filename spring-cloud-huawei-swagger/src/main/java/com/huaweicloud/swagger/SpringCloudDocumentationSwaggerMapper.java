@@ -31,8 +31,17 @@ import springfox.documentation.swagger2.mappers.ServiceModelToSwagger2Mapper;
 public class SpringCloudDocumentationSwaggerMapper implements DocumentationSwaggerMapper {
   private ServiceModelToSwagger2Mapper mapper;
 
-  public SpringCloudDocumentationSwaggerMapper(ServiceModelToSwagger2Mapper mapper) {
+  private final DefinitionCache definitionCache;
+
+  public SpringCloudDocumentationSwaggerMapper(ServiceModelToSwagger2Mapper mapper,
+      DefinitionCache definitionCache) {
     this.mapper = mapper;
+    this.definitionCache = definitionCache;
+  }
+
+  @Override
+  public DefinitionCache getDefinitionCache() {
+    return definitionCache;
   }
 
   @Override
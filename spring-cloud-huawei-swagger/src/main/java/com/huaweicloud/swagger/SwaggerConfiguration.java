@@ -39,7 +39,12 @@ public class SwaggerConfiguration {
   }
 
   @Bean
-  public ApiModelReaderAop apiModelReaderAop() {
-    return new ApiModelReaderAop();
+  public DefinitionCache definitionCache() {
+    return new DefinitionCache();
+  }
+
+  @Bean
+  public ApiModelReaderAop apiModelReaderAop(DefinitionCache definitionCache) {
+    return new ApiModelReaderAop(definitionCache);
   }
 }
@@ -0,0 +1,243 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.swagger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Cache of generated swagger schemas on local disk, keyed by a fingerprint of the classpath.
+ *
+ * The fingerprint covers the content of the classpath: name, size and crc of each entry of jars, and name
+ * and content of each file in class directories. Modify times are not used, build tools may pin them, so a
+ * rebuilt application never reads schemas of an older build. Schemas of each fingerprint are kept in their
+ * own directory, together with a key file identifying the microservice, generation options and active profiles
+ * they are generated for, see {@link #key(String, String, boolean, String...)}.
+ *
+ * Other configuration is assumed not to change schemas: properties read by springfox or by controllers, such
+ * as context path or property placeholders in request mappings, are not part of the key. Delete the cache
+ * directory, or disable the cache, when changing them without changing the classpath or profiles.
+ */
+public class SwaggerSchemaCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SwaggerSchemaCache.class);
+
+  // change when format of generated schemas changes
+  private static final String CACHE_VERSION = "1";
+
+  private static final String KEY_FILE = "key";
+
+  private static volatile String classpathFingerprint;
+
+  private final Path cacheDir;
+
+  private final Path dir;
+
+  SwaggerSchemaCache(Path cacheDir, String fingerprint) {
+    this.cacheDir = cacheDir;
+    this.dir = cacheDir.resolve(fingerprint);
+  }
+
+  /**
+   * @return null if classpath fingerprint can not be calculated
+   */
+  public static SwaggerSchemaCache create(String cacheDir) {
+    String fingerprint = classpathFingerprint();
+    if (fingerprint == null) {
+      return null;
+    }
+    Path path = StringUtils.isEmpty(cacheDir)
+        ? Paths.get(System.getProperty("java.io.tmpdir"), "servicecomb", "swagger-cache") : Paths.get(cacheDir);
+    return new SwaggerSchemaCache(path, fingerprint);
+  }
+
+  /**
+   * @return identity of the microservice, generation options and active profiles
+   */
+  public static String key(String appName, String serviceName, boolean withJavaChassis, String... activeProfiles) {
+    return appName + "/" + serviceName + "/" + withJavaChassis + "/" + String.join(",", activeProfiles);
+  }
+
+  static String classpathFingerprint() {
+    if (classpathFingerprint == null) {
+      classpathFingerprint = calcClasspathFingerprint(System.getProperty("java.class.path", ""));
+    }
+    return classpathFingerprint;
+  }
+
+  static String calcClasspathFingerprint(String classpath) {
+    Hasher hasher = Hashing.sha256().newHasher().putString(CACHE_VERSION, StandardCharsets.UTF_8);
+    try {
+      for (String entry : classpath.split(File.pathSeparator)) {
+        for (Path path : expand(entry)) {
+          putClasspathEntry(hasher, path);
+        }
+      }
+      return hasher.hash().toString();
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("calculate classpath fingerprint failed, swagger cache is not used. {}", e.getMessage());
+      return null;
+    }
+  }
+
+  // "dir/*" means all jars of dir, see java command
+  static List<Path> expand(String entry) throws IOException {
+    if (StringUtils.isEmpty(entry)) {
+      return Collections.emptyList();
+    }
+    if (!"*".equals(entry) && !entry.endsWith(File.separator + "*") && !entry.endsWith("/*")) {
+      return Collections.singletonList(Paths.get(entry));
+    }
+    String dirName = entry.substring(0, entry.length() - 1);
+    Path dir = Paths.get(dirName.isEmpty() ? "." : dirName);
+    if (!Files.isDirectory(dir)) {
+      return Collections.emptyList();
+    }
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.filter(file -> file.getFileName().toString().toLowerCase().endsWith(".jar"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static void putClasspathEntry(Hasher hasher, Path path) throws IOException {
+    hasher.putString(path.toString(), StandardCharsets.UTF_8);
+    if (Files.isDirectory(path)) {
+      try (Stream<Path> files = Files.walk(path)) {
+        for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+          hasher.putString(path.relativize(file).toString(), StandardCharsets.UTF_8)
+              .putBytes(Files.readAllBytes(file));
+        }
+      }
+    } else if (Files.isRegularFile(path)) {
+      putJar(hasher, path);
+    }
+  }
+
+  // crc of each entry is recorded in the central directory, no need to read the whole jar
+  private static void putJar(Hasher hasher, Path jar) throws IOException {
+    try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        hasher.putString(entry.getName(), StandardCharsets.UTF_8)
+            .putLong(entry.getSize())
+            .putLong(entry.getCrc());
+      }
+    } catch (ZipException e) {
+      // not a jar
+      hasher.putBytes(Files.readAllBytes(jar));
+    }
+  }
+
+  public boolean exists() {
+    return Files.isRegularFile(dir.resolve(KEY_FILE));
+  }
+
+  /**
+   * @param key identity of the microservice and generation options
+   * @return cached schemas, empty if not cached
+   */
+  public Map<String, String> load(String key, Map<String, String> summaries) {
+    if (!exists()) {
+      return new HashMap<>();
+    }
+    try {
+      if (!key.equals(new String(Files.readAllBytes(dir.resolve(KEY_FILE)), StandardCharsets.UTF_8))) {
+        return new HashMap<>();
+      }
+      return SwaggerSchemaFiles.load(dir, summaries);
+    } catch (IOException e) {
+      LOGGER.warn("read swagger cache {} failed, {}", dir, e.getMessage());
+      summaries.clear();
+      return new HashMap<>();
+    }
+  }
+
+  /**
+   * write schemas to a temporary directory and then move it, and remove caches of older builds of the same
+   * microservice.
+   */
+  public void store(String key, Map<String, String> schemas, Map<String, String> summaries) {
+    Path temp = cacheDir.resolve(dir.getFileName() + ".tmp" + System.nanoTime());
+    try {
+      SwaggerSchemaFiles.export(temp, schemas, summaries);
+      Files.write(temp.resolve(KEY_FILE), key.getBytes(StandardCharsets.UTF_8));
+      delete(dir);
+      Files.move(temp, dir);
+      removeOutdated(key);
+    } catch (IOException e) {
+      LOGGER.warn("write swagger cache {} failed, {}", dir, e.getMessage());
+      try {
+        delete(temp);
+      } catch (IOException ignore) {
+        // leave it
+      }
+    }
+  }
+
+  private void removeOutdated(String key) throws IOException {
+    List<Path> outdated = new ArrayList<>();
+    try (DirectoryStream<Path> dirs = Files.newDirectoryStream(cacheDir, Files::isDirectory)) {
+      for (Path other : dirs) {
+        Path keyFile = other.resolve(KEY_FILE);
+        if (!other.equals(dir) && Files.isRegularFile(keyFile)
+            && key.equals(new String(Files.readAllBytes(keyFile), StandardCharsets.UTF_8))) {
+          outdated.add(other);
+        }
+      }
+    }
+    for (Path other : outdated) {
+      delete(other);
+    }
+  }
+
+  private static void delete(Path path) throws IOException {
+    if (!Files.exists(path)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(path)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+        Files.delete(file);
+      }
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+
+package com.huaweicloud.swagger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.CodeSource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Swagger schemas generated at build time.
+ *
+ * Each schema is stored as META-INF/servicecomb/schemas/{schemaId}.yaml, with its summary in
+ * {schemaId}.sha256. Schemas are exported by running the application, usually a test in the build, with
+ * spring.cloud.servicecomb.swagger.exportDir pointing to target/classes/META-INF/servicecomb/schemas.
+ *
+ * Schemas are only loaded from the location of the application itself, schemas packaged in dependencies
+ * belong to other microservices. Loading is enabled by spring.cloud.servicecomb.swagger.usePrebuilt, schemas
+ * must be exported again whenever controllers change.
+ */
+public final class SwaggerSchemaFiles {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SwaggerSchemaFiles.class);
+
+  public static final String LOCATION = "META-INF/servicecomb/schemas/";
+
+  private static final String SCHEMA_SUFFIX = ".yaml";
+
+  private static final String SUMMARY_SUFFIX = ".sha256";
+
+  private SwaggerSchemaFiles() {
+  }
+
+  /**
+   * @return root url of the classes or jar containing the main class, null if unknown
+   */
+  public static String applicationRoot(Class<?> mainClass) {
+    if (mainClass == null || mainClass.getProtectionDomain() == null) {
+      return null;
+    }
+    CodeSource codeSource = mainClass.getProtectionDomain().getCodeSource();
+    URL location = codeSource == null ? null : codeSource.getLocation();
+    if (location == null) {
+      return null;
+    }
+    String root = location.toString();
+    if ("file".equals(location.getProtocol()) && root.endsWith(".jar")) {
+      return "jar:" + root + "!/";
+    }
+    return root.endsWith("/") ? root : root + "/";
+  }
+
+  public static boolean exists(ClassLoader classLoader, String applicationRoot) {
+    return findSchemas(classLoader, applicationRoot).length > 0;
+  }
+
+  private static Resource[] findSchemas(ClassLoader classLoader, String applicationRoot) {
+    if (applicationRoot == null || applicationRoot.isEmpty()) {
+      return new Resource[0];
+    }
+    try {
+      return new PathMatchingResourcePatternResolver(classLoader)
+          .getResources(applicationRoot + LOCATION + "*" + SCHEMA_SUFFIX);
+    } catch (IOException e) {
+      LOGGER.warn("find prebuilt swagger schemas failed, {}", e.getMessage());
+      return new Resource[0];
+    }
+  }
+
+  /**
+   * @param applicationRoot see {@link #applicationRoot(Class)}
+   * @param summaries filled with summaries of loaded schemas, calculated when summary file is missing
+   * @return schemaId to schema content, empty if no schemas are prebuilt
+   */
+  public static Map<String, String> load(ClassLoader classLoader, String applicationRoot,
+      Map<String, String> summaries) {
+    Map<String, String> schemas = new HashMap<>();
+    for (Resource resource : findSchemas(classLoader, applicationRoot)) {
+      String fileName = resource.getFilename();
+      if (fileName == null) {
+        continue;
+      }
+      String schemaId = fileName.substring(0, fileName.length() - SCHEMA_SUFFIX.length());
+      try {
+        String content = read(resource);
+        Resource summary = resource.createRelative(schemaId + SUMMARY_SUFFIX);
+        schemas.put(schemaId, content);
+        summaries.put(schemaId, summary.exists() ? read(summary).trim()
+            : ServiceCombSwaggerHandlerImpl.calcSchemaSummary(content));
+      } catch (IOException e) {
+        LOGGER.warn("read prebuilt swagger schema {} failed, {}", resource, e.getMessage());
+        summaries.clear();
+        return new HashMap<>();
+      }
+    }
+    return schemas;
+  }
+
+  /**
+   * load schemas exported to a directory, see {@link #load(ClassLoader, String, Map)}
+   */
+  public static Map<String, String> load(Path dir, Map<String, String> summaries) throws IOException {
+    Map<String, String> schemas = new HashMap<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SCHEMA_SUFFIX)) {
+      for (Path file : files) {
+        String fileName = file.getFileName().toString();
+        String schemaId = fileName.substring(0, fileName.length() - SCHEMA_SUFFIX.length());
+        Path summary = dir.resolve(schemaId + SUMMARY_SUFFIX);
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        schemas.put(schemaId, content);
+        summaries.put(schemaId, Files.exists(summary)
+            ? new String(Files.readAllBytes(summary), StandardCharsets.UTF_8).trim()
+            : ServiceCombSwaggerHandlerImpl.calcSchemaSummary(content));
+      }
+    }
+    return schemas;
+  }
+
+  private static String read(Resource resource) throws IOException {
+    try (InputStream in = resource.getInputStream()) {
+      return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * export schemas to dir, schema files of previous exports not in schemas are deleted
+   */
+  public static void export(Path dir, Map<String, String> schemas, Map<String, String> summaries)
+      throws IOException {
+    Files.createDirectories(dir);
+    deleteStale(dir, schemas.keySet());
+    for (Map.Entry<String, String> entry : schemas.entrySet()) {
+      Files.write(dir.resolve(entry.getKey() + SCHEMA_SUFFIX), entry.getValue().getBytes(StandardCharsets.UTF_8));
+      Files.write(dir.resolve(entry.getKey() + SUMMARY_SUFFIX),
+          summaries.get(entry.getKey()).getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private static void deleteStale(Path dir, Set<String> schemaIds) throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir,
+        "*{" + SCHEMA_SUFFIX + "," + SUMMARY_SUFFIX + "}")) {
+      for (Path file : files) {
+        String fileName = file.getFileName().toString();
+        String schemaId = fileName.substring(0, fileName.lastIndexOf('.'));
+        if (!schemaIds.contains(schemaId)) {
+          Files.delete(file);
+          LOGGER.info("deleted stale swagger schema file {}.", file);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+package com.huaweicloud.swagger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+public class PrebuiltSwaggerEnvironmentPostProcessorTest {
+  private static final String AUTO_STARTUP = "springfox.documentation.auto-startup";
+
+  private static String prebuiltRoot() throws Exception {
+    Path root = Files.createTempDirectory("classes");
+    Path dir = root.resolve(SwaggerSchemaFiles.LOCATION);
+    Files.createDirectories(dir);
+    Files.write(dir.resolve("a.yaml"), "swagger: a".getBytes(StandardCharsets.UTF_8));
+    return root.toUri().toString();
+  }
+
+  private static StandardEnvironment process(Map<String, Object> properties) {
+    StandardEnvironment environment = new StandardEnvironment();
+    environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+    SpringApplication application = new SpringApplication();
+    application.setMainApplicationClass(PrebuiltSwaggerEnvironmentPostProcessorTest.class);
+    new PrebuiltSwaggerEnvironmentPostProcessor().postProcessEnvironment(environment, application);
+    return environment;
+  }
+
+  @Test
+  public void testApplicationRoot() {
+    StandardEnvironment environment = process(new HashMap<>());
+    Assert.assertEquals(SwaggerSchemaFiles.applicationRoot(PrebuiltSwaggerEnvironmentPostProcessorTest.class),
+        environment.getProperty(PrebuiltSwaggerEnvironmentPostProcessor.APPLICATION_ROOT));
+    Assert.assertNull(environment.getProperty(AUTO_STARTUP));
+  }
+
+  @Test
+  public void testPrebuiltNotUsedByDefault() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PrebuiltSwaggerEnvironmentPostProcessor.APPLICATION_ROOT, prebuiltRoot());
+    Assert.assertNull(process(properties).getProperty(AUTO_STARTUP));
+  }
+
+  @Test
+  public void testPrebuiltUsed() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PrebuiltSwaggerEnvironmentPostProcessor.APPLICATION_ROOT, prebuiltRoot());
+    properties.put(PrebuiltSwaggerEnvironmentPostProcessor.USE_PREBUILT, "true");
+    Assert.assertEquals("false", process(properties).getProperty(AUTO_STARTUP));
+  }
+
+  @Test
+  public void testNoPrebuiltSchemas() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PrebuiltSwaggerEnvironmentPostProcessor.APPLICATION_ROOT,
+        Files.createTempDirectory("classes").toUri().toString());
+    properties.put(PrebuiltSwaggerEnvironmentPostProcessor.USE_PREBUILT, "true");
+    Assert.assertNull(process(properties).getProperty(AUTO_STARTUP));
+  }
+
+  @Test
+  public void testScanWhenExporting() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PrebuiltSwaggerEnvironmentPostProcessor.APPLICATION_ROOT, prebuiltRoot());
+    properties.put(PrebuiltSwaggerEnvironmentPostProcessor.USE_PREBUILT, "true");
+    properties.put(PrebuiltSwaggerEnvironmentPostProcessor.EXPORT_DIR, "target/schemas");
+    Assert.assertNull(process(properties).getProperty(AUTO_STARTUP));
+  }
+
+  @Test
+  public void testAutoStartupConfigured() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(PrebuiltSwaggerEnvironmentPostProcessor.APPLICATION_ROOT, prebuiltRoot());
+    properties.put(PrebuiltSwaggerEnvironmentPostProcessor.USE_PREBUILT, "true");
+    properties.put(AUTO_STARTUP, "true");
+    Assert.assertEquals("true", process(properties).getProperty(AUTO_STARTUP));
+  }
+}
@@ -0,0 +1,113 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+package com.huaweicloud.swagger;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SwaggerSchemaCacheTest {
+  @Test
+  public void testExpand() throws Exception {
+    Path dir = Files.createTempDirectory("lib");
+    Files.createFile(dir.resolve("b.jar"));
+    Files.createFile(dir.resolve("a.JAR"));
+    Files.createFile(dir.resolve("c.txt"));
+    Files.createDirectory(dir.resolve("d.jar.d"));
+
+    Assert.assertEquals(Arrays.asList(dir.resolve("a.JAR"), dir.resolve("b.jar")),
+        SwaggerSchemaCache.expand(dir + File.separator + "*"));
+    Assert.assertEquals(Collections.singletonList(dir.resolve("c.txt")),
+        SwaggerSchemaCache.expand(dir.resolve("c.txt").toString()));
+    Assert.assertTrue(SwaggerSchemaCache.expand("").isEmpty());
+    Assert.assertTrue(SwaggerSchemaCache.expand(dir.resolve("none") + File.separator + "*").isEmpty());
+  }
+
+  @Test
+  public void testFingerprintChangesWithContent() throws Exception {
+    Path classes = Files.createTempDirectory("classes");
+    Path jar = Files.createTempDirectory("lib").resolve("a.jar");
+    Files.write(classes.resolve("A.class"), "v1".getBytes(StandardCharsets.UTF_8));
+    writeJar(jar, "v1");
+    String classpath = classes + File.pathSeparator + jar;
+
+    String fingerprint = SwaggerSchemaCache.calcClasspathFingerprint(classpath);
+    Assert.assertNotNull(fingerprint);
+    Assert.assertEquals(fingerprint, SwaggerSchemaCache.calcClasspathFingerprint(classpath));
+
+    Files.write(classes.resolve("A.class"), "v2".getBytes(StandardCharsets.UTF_8));
+    String classesChanged = SwaggerSchemaCache.calcClasspathFingerprint(classpath);
+    Assert.assertNotEquals(fingerprint, classesChanged);
+
+    writeJar(jar, "v2");
+    Assert.assertNotEquals(classesChanged, SwaggerSchemaCache.calcClasspathFingerprint(classpath));
+  }
+
+  private static void writeJar(Path jar, String content) throws Exception {
+    try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+      zip.putNextEntry(new ZipEntry("A.class"));
+      zip.write(content.getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+  }
+
+  @Test
+  public void testKeyContainsActiveProfiles() {
+    Assert.assertNotEquals(SwaggerSchemaCache.key("app", "service", true, new String[] {"dev"}),
+        SwaggerSchemaCache.key("app", "service", true, new String[] {"prod"}));
+    Assert.assertNotEquals(SwaggerSchemaCache.key("app", "service", true, new String[0]),
+        SwaggerSchemaCache.key("app", "service", false, new String[0]));
+  }
+
+  @Test
+  public void testStoreAndLoad() throws Exception {
+    Path cacheDir = Files.createTempDirectory("swagger-cache");
+    Map<String, String> schemas = Collections.singletonMap("a", "swagger: a");
+    Map<String, String> summaries = Collections.singletonMap("a", "sa");
+    SwaggerSchemaCache older = new SwaggerSchemaCache(cacheDir, "f1");
+    SwaggerSchemaCache other = new SwaggerSchemaCache(cacheDir, "f2");
+    SwaggerSchemaCache cache = new SwaggerSchemaCache(cacheDir, "f3");
+    Assert.assertFalse(cache.exists());
+
+    older.store("key", schemas, summaries);
+    other.store("other", schemas, summaries);
+    cache.store("key", schemas, summaries);
+    Assert.assertTrue(cache.exists());
+
+    Map<String, String> loadedSummaries = new HashMap<>();
+    Assert.assertEquals(schemas, cache.load("key", loadedSummaries));
+    Assert.assertEquals(summaries, loadedSummaries);
+    // generated for another microservice or configuration
+    Assert.assertTrue(cache.load("other", new HashMap<>()).isEmpty());
+
+    // older build of the same microservice is removed
+    Assert.assertFalse(older.exists());
+    Assert.assertFalse(Files.exists(cacheDir.resolve("f1")));
+    Assert.assertTrue(other.exists());
+  }
+}
@@ -0,0 +1,79 @@
+/*
+
+  * Copyright (C) 2020-2022 Huawei Technologies Co., Ltd. All rights reserved.
+
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *
+  *     http://www.apache.org/licenses/LICENSE-2.0
+  *
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License.
+  */
+package com.huaweicloud.swagger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SwaggerSchemaFilesTest {
+  @Test
+  public void testExportAndLoad() throws Exception {
+    Path dir = Files.createTempDirectory("schemas");
+    Map<String, String> schemas = new HashMap<>();
+    schemas.put("a", "swagger: a");
+    schemas.put("b", "swagger: b");
+    Map<String, String> summaries = new HashMap<>();
+    summaries.put("a", "sa");
+    summaries.put("b", "sb");
+    SwaggerSchemaFiles.export(dir, schemas, summaries);
+
+    Map<String, String> loadedSummaries = new HashMap<>();
+    Assert.assertEquals(schemas, SwaggerSchemaFiles.load(dir, loadedSummaries));
+    Assert.assertEquals(summaries, loadedSummaries);
+
+    schemas.remove("b");
+    summaries.remove("b");
+    SwaggerSchemaFiles.export(dir, schemas, summaries);
+    Assert.assertFalse(Files.exists(dir.resolve("b.yaml")));
+    Assert.assertFalse(Files.exists(dir.resolve("b.sha256")));
+    loadedSummaries.clear();
+    Assert.assertEquals(schemas, SwaggerSchemaFiles.load(dir, loadedSummaries));
+  }
+
+  @Test
+  public void testLoadFromApplicationRoot() throws Exception {
+    Path root = Files.createTempDirectory("classes");
+    Path dir = root.resolve(SwaggerSchemaFiles.LOCATION);
+    Files.createDirectories(dir);
+    Files.write(dir.resolve("a.yaml"), "swagger: a".getBytes(StandardCharsets.UTF_8));
+    String applicationRoot = root.toUri().toString();
+    ClassLoader classLoader = getClass().getClassLoader();
+
+    Assert.assertTrue(SwaggerSchemaFiles.exists(classLoader, applicationRoot));
+    Map<String, String> summaries = new HashMap<>();
+    Map<String, String> schemas = SwaggerSchemaFiles.load(classLoader, applicationRoot, summaries);
+    Assert.assertEquals("swagger: a", schemas.get("a"));
+    // summary file missing, calculated from content
+    Assert.assertEquals(ServiceCombSwaggerHandlerImpl.calcSchemaSummary("swagger: a"), summaries.get("a"));
+
+    Assert.assertFalse(SwaggerSchemaFiles.exists(classLoader, Files.createTempDirectory("other").toUri().toString()));
+    Assert.assertFalse(SwaggerSchemaFiles.exists(classLoader, null));
+  }
+
+  @Test
+  public void testApplicationRoot() {
+    Assert.assertTrue(SwaggerSchemaFiles.applicationRoot(SwaggerSchemaFilesTest.class).endsWith("/"));
+    Assert.assertNull(SwaggerSchemaFiles.applicationRoot(null));
+    Assert.assertNull(SwaggerSchemaFiles.applicationRoot(String.class));
+  }
+}